@@ -9,10 +9,19 @@ import javax.annotation.Nullable;
 import java.util.List;
 
 public interface AudioLoadResult {
+	// decoded through lavaplayer on first use, prefer encodedTracks() or trackInfos() if AudioTracks aren't needed.
 	@CheckReturnValue
 	@Nonnull
 	List<AudioTrack> tracks();
 
+	@CheckReturnValue
+	@Nonnull
+	List<String> encodedTracks();
+
+	@CheckReturnValue
+	@Nonnull
+	List<TrackInfo> trackInfos();
+
 	@CheckReturnValue
 	@Nullable
 	AudioTrack first();
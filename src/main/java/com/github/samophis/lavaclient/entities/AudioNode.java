@@ -17,11 +17,15 @@ package com.github.samophis.lavaclient.entities;
 
 import com.github.samophis.lavaclient.events.EventType;
 import com.github.samophis.lavaclient.events.LavalinkEvent;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 @SuppressWarnings("unused")
@@ -65,6 +69,29 @@ public interface AudioNode {
 	@CheckReturnValue
 	boolean available();
 
+	@Nonnull
+	@CheckReturnValue
+	NodeMetrics metrics();
+
+	// at most AudioNodeOptions#maxConcurrentLoads of these are in flight at once, the rest wait their turn.
+	@Nonnull
+	@CheckReturnValue
+	CompletionStage<AudioLoadResult> loadTracksAsync(@Nonnull final String identifier);
+
+	/*
+	Streams the tracks of a (usually large) playlist in chunks of at most chunkSize as they are parsed, honouring the
+	subscriber's demand. Bypasses the load result cache.
+	 */
+	@Nonnull
+	@CheckReturnValue
+	Flow.Publisher<List<AudioTrack>> streamTracks(@Nonnull final String identifier, @Nonnegative final int chunkSize);
+
+	@Nonnull
+	@CheckReturnValue
+	default Flow.Publisher<List<AudioTrack>> streamTracks(@Nonnull final String identifier) {
+		return streamTracks(identifier, 100);
+	}
+
 	void openConnection();
 
 	void openConnection(@Nonnull final Runnable callback);
@@ -73,14 +100,7 @@ public interface AudioNode {
 
 	void closeConnection(@Nonnull final Runnable callback);
 
-	@SuppressWarnings("unchecked")
-	default <T extends LavalinkEvent> void on(@Nonnull final EventType<T> type, @Nonnull final Consumer<T> handler) {
-		on(event -> {
-			if (event.type().equals(type)) {
-				handler.accept((T) event);
-			}
-		});
-	}
+	<T extends LavalinkEvent> void on(@Nonnull final EventType<T> type, @Nonnull final Consumer<T> handler);
 
 	void on(@Nonnull final Consumer<LavalinkEvent> handler);
 }
@@ -22,4 +22,111 @@ public class AudioNodeOptions {
 
 	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
 	private int port;
+
+	// measured in queued commands, only used once netty's own write queue is full.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int outboundHighWatermark = 4096;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int outboundLowWatermark = 2048;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnull)
+	private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+	// milliseconds during which only the latest volume/seek/pause per guild is kept, 0 disables coalescing.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private long coalesceWindow;
+
+	// REST requests (track loads) allowed in flight against this node at once.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int maxConcurrentLoads = 16;
+
+	// connections kept open to this node's REST api. vert.x defaults to 5, which sits below maxConcurrentLoads.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int httpPoolSize = 16;
+
+	// requests in flight on one connection: the pipelining depth over HTTP/1.1, the stream limit over HTTP/2.
+	// 1 disables pipelining.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int httpPipeliningLimit = 1;
+
+	// requests allowed to wait for a free connection before failing, -1 for no limit.
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private int httpMaxWaitQueueSize = -1;
+
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean httpKeepAlive = true;
+
+	// seconds a kept-alive connection may sit unused in the pool.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int httpKeepAliveTimeout = 60;
+
+	// milliseconds.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int httpConnectTimeout = 5000;
+
+	// seconds without any traffic before a connection is closed, 0 disables.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int httpIdleTimeout;
+
+	// talk HTTP/2 (h2c) to the REST api, only worth it if the node is behind a proxy that speaks it.
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean http2;
+
+	// most recent REST calls the circuit breaker judges the node by, 0 disables the breaker.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int breakerWindow = 20;
+
+	// calls needed in the window before the circuit can open.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int breakerMinimumCalls = 10;
+
+	// share of failed calls in the window which opens the circuit.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private double breakerFailureRate = 0.5;
+
+	// milliseconds after which a successful call still counts as failed, 0 disables.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private long breakerSlowCall;
+
+	// milliseconds an open circuit refuses requests for before letting probes through.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private long breakerOpenDuration = 10000;
+
+	// probes which all have to succeed for a half-open circuit to close.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private int breakerHalfOpenProbes = 3;
+
+	// REST timeouts are restTimeoutMultiplier times the node's latency p95, clamped to these bounds (milliseconds).
+	// restTimeoutMax is used until the node has been measured.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private long restTimeoutMin = 1000;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private long restTimeoutMax = 30000;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_ = @Nonnegative)
+	private double restTimeoutMultiplier = 4;
 }
@@ -0,0 +1,51 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+// exactly one of result() and error() is non-null.
+@SuppressWarnings("unused")
+public interface BulkLoadResult {
+	@CheckReturnValue
+	@Nonnull
+	String identifier();
+
+	@CheckReturnValue
+	@Nullable
+	AudioNode node();
+
+	@CheckReturnValue
+	@Nullable
+	AudioLoadResult result();
+
+	@CheckReturnValue
+	@Nullable
+	Throwable error();
+
+	// from submission to completion, including time spent waiting for a free slot on the node.
+	@CheckReturnValue
+	@Nonnegative
+	long latencyNanos();
+
+	@CheckReturnValue
+	default boolean succeeded() {
+		return error() == null;
+	}
+}
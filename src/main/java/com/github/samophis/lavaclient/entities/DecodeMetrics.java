@@ -0,0 +1,55 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+
+// client-wide counters for LavaClient#decodeTracksAsync, split by where the decoding happened.
+@SuppressWarnings("unused")
+public interface DecodeMetrics {
+	// /decodetracks requests that came back with every track decoded.
+	@CheckReturnValue
+	@Nonnegative
+	long remoteBatches();
+
+	@CheckReturnValue
+	@Nonnegative
+	long remoteTracks();
+
+	@CheckReturnValue
+	@Nonnegative
+	long localTracks();
+
+	// batches meant for a node that were decoded locally instead, because the request failed or no node was usable.
+	@CheckReturnValue
+	@Nonnegative
+	long fallbacks();
+
+	// exponentially weighted, from sending a batch to getting its answer.
+	@CheckReturnValue
+	@Nonnegative
+	double remoteBatchMillis();
+
+	// the per-track figures are wall time divided by batch size, so 1000 over either is that mode's throughput per second.
+	@CheckReturnValue
+	@Nonnegative
+	double remoteMillisPerTrack();
+
+	@CheckReturnValue
+	@Nonnegative
+	double localMillisPerTrack();
+}
@@ -16,6 +16,11 @@
 package com.github.samophis.lavaclient.entities;
 
 import com.github.samophis.lavaclient.entities.internal.LavaClientImpl;
+import com.github.samophis.lavaclient.entities.internal.StartupTimingsImpl;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.util.LoadResultCache;
+import com.github.samophis.lavaclient.util.TrackCache;
+import com.github.samophis.lavaclient.util.TrackStore;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
@@ -25,7 +30,10 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 @SuppressWarnings("unused")
 public interface LavaClient {
@@ -74,10 +82,82 @@ public interface LavaClient {
 
 	void addNode(@Nonnull final AudioNode node);
 
+	/*
+	Deploys and connects every node concurrently. The stage completes once quorum nodes are connected, or fails once
+	enough have failed that quorum can no longer be reached.
+	 */
+	@Nonnull
+	CompletionStage<Void> addNodes(@Nonnull final List<AudioNode> nodes, @Nonnegative final int quorum);
+
+	// covers the client's own setup and the first addNodes batch, nodes added after that aren't timed.
+	@CheckReturnValue
+	@Nonnull
+	StartupTimings startupTimings();
+
+	// null unless LavaClientOptions#loadCacheSize is set.
+	@CheckReturnValue
+	@Nullable
+	LoadResultCache loadResultCache();
+
+	// null unless LavaClientOptions#trackStorePath is set, or if the store couldn't be opened.
+	@CheckReturnValue
+	@Nullable
+	TrackStore trackStore();
+
+	/*
+	Loads from whichever available node has been answering fastest, optionally hedging to a second node (see
+	LavaClientOptions#hedgeLoads). Goes through the load result cache when there is one.
+	 */
+	@Nonnull
+	@CheckReturnValue
+	CompletionStage<AudioLoadResult> loadTracksAsync(@Nonnull final String identifier);
+
+	@Nonnull
+	@CheckReturnValue
+	RestMetrics restMetrics();
+
+	/*
+	Decodes track blobs into their info without lavaplayer. With LavaClientOptions#remoteDecode on, calls made within
+	the same short window are sent to a node as one /decodetracks request, falling back to local decoding whenever the
+	nodes are slow or unusable. The infos come back in the order of encodedTracks.
+	 */
+	@Nonnull
+	@CheckReturnValue
+	CompletionStage<List<TrackInfo>> decodeTracksAsync(@Nonnull final List<String> encodedTracks);
+
+	@Nonnull
+	@CheckReturnValue
+	DecodeMetrics decodeMetrics();
+
+	/*
+	Spreads the loads over the available nodes, always picking the one with the fewest loads in flight or waiting, and
+	never exceeding a node's maxConcurrentLoads. onResult sees each result as soon as it completes, the stage completes
+	with all of them in the order of identifiers. Failed loads are reported in their result rather than failing the stage.
+	 */
+	@Nonnull
+	CompletionStage<List<BulkLoadResult>> loadTracksBulk(@Nonnull final Collection<String> identifiers,
+	                                                     @Nullable final Consumer<BulkLoadResult> onResult);
+
 	void removeNode(@Nonnull final String baseUrl);
 
 	void shutdown();
 
+	@Nonnull
+	default CompletionStage<Void> addNodes(@Nonnull final List<AudioNode> nodes) {
+		return addNodes(nodes, nodes.size());
+	}
+
+	@Nonnull
+	@CheckReturnValue
+	default CompletionStage<TrackInfo> decodeTrackAsync(@Nonnull final String encodedTrack) {
+		return decodeTracksAsync(List.of(encodedTrack)).thenApply(infos -> infos.get(0));
+	}
+
+	@Nonnull
+	default CompletionStage<List<BulkLoadResult>> loadTracksBulk(@Nonnull final Collection<String> identifiers) {
+		return loadTracksBulk(identifiers, null);
+	}
+
 	default void removeNode(@Nonnull final AudioNode node) {
 		removeNode(node.baseUrl());
 	}
@@ -101,7 +181,15 @@ public interface LavaClient {
 		if (shardCount <= 0) {
 			throw new IllegalArgumentException("shard count cannot be smaller than or equal to 0");
 		}
-		return new LavaClientImpl(Vertx.vertx(vertxOptions), new ArrayList<>(), new TLongObjectHashMap<>(), userId,
-				shardCount);
+		// the track cache is global, a weight bound takes priority since caffeine can't apply both.
+		if (options.trackCacheWeight() > 0) {
+			AudioTrackUtil.cache(TrackCache.byWeight(options.trackCacheWeight()));
+		} else if (options.trackCacheSize() > 0) {
+			AudioTrackUtil.cache(TrackCache.bySize(options.trackCacheSize()));
+		}
+		final var timings = new StartupTimingsImpl();
+		final var vertx = timings.time("vertx", () -> Vertx.vertx(vertxOptions));
+		return new LavaClientImpl(vertx, new ArrayList<>(), new TLongObjectHashMap<>(), userId, shardCount, options,
+				timings);
 	}
 }
@@ -26,4 +26,113 @@ public class LavaClientOptions {
 	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
 	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nullable})
 	private VertxOptions vertxOptions;
+
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean streamingDecode;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long trackCacheSize;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long trackCacheWeight;
+
+	// hashes guild ids onto this many event loop contexts per node, 0 parses everything on the node's own context.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private int eventLanes;
+
+	// loads lavaplayer's player manager on a worker thread during startup instead of on the first decoded track.
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean preloadTrackManager;
+
+	// maximum number of cached load results, 0 disables the load result cache.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long loadCacheSize;
+
+	// the load cache ttls are all in milliseconds.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long loadCacheSearchTtl = 300_000;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long loadCacheUrlTtl = 1_800_000;
+
+	// applies to NO_MATCHES and LOAD_FAILED results.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long loadCacheNegativeTtl = 30_000;
+
+	// file backing the persistent track store, which lets loads survive restarts. null disables it.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nullable})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nullable})
+	private String trackStorePath;
+
+	// bytes mapped for the track store, full stores are compacted and then refuse new results until some expire.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private int trackStoreSize = 64 << 20;
+
+	// milliseconds, longer than the in-memory ttls since the point is to outlive the process.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long trackStoreSearchTtl = 3_600_000;
+
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long trackStoreUrlTtl = 86_400_000;
+
+	// worker threads used to parse and decode loaded track lists, 0 leaves decoding to whoever calls tracks().
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private int decodePoolSize = Runtime.getRuntime().availableProcessors();
+
+	// tracks per decode task, larger lists are split and decoded in parallel.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private int decodeChunkSize = 64;
+
+	// players load through LavaClient#loadTracksAsync (fastest node) rather than their connected node.
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean restRouting = true;
+
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean hedgeLoads;
+
+	// hedges earned per load, i.e. the largest fraction of loads that may be duplicated.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private double hedgeRate = 0.05;
+
+	// milliseconds, lower bound for the p95 based hedge delay.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long hedgeMinDelay = 20;
+
+	// decodeTracksAsync batches through lavalink's /decodetracks instead of always decoding locally.
+	@Getter(onMethod_ = @CheckReturnValue)
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private boolean remoteDecode;
+
+	// milliseconds decode requests are gathered for before being sent as one batch.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long decodeBatchWindow = 5;
+
+	// tracks which send a batch early.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private int decodeBatchSize = 256;
+
+	// milliseconds, batches go local while the node's batch p95 is above this. 0 never falls back for being slow.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	@Setter(onMethod_ = {@CheckReturnValue, @Nonnull}, onParam_= {@Nonnegative})
+	private long remoteDecodeMaxLatency = 250;
 }
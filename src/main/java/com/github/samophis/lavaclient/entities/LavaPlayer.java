@@ -22,7 +22,9 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
 
 @SuppressWarnings("unused")
 public interface LavaPlayer {
@@ -66,6 +68,11 @@ public interface LavaPlayer {
     @Nonnegative
     long position();
 
+    // extrapolated from the last player update, accurate between updates unlike position().
+    @CheckReturnValue
+    @Nonnegative
+    long estimatedPosition();
+
     @CheckReturnValue
     @Nonnegative
     int volume();
@@ -77,49 +84,83 @@ public interface LavaPlayer {
 	@CheckReturnValue
 	CompletionStage<AudioLoadResult> loadTracksAsync(@Nonnull final String identifier);
 
-    void play(@Nonnull final String trackData, @Nonnegative final long startTime, @Nonnegative final long endTime,
-              final boolean noReplace);
+	@Nonnull
+	@CheckReturnValue
+	Flow.Publisher<List<AudioTrack>> streamTracks(@Nonnull final String identifier, @Nonnegative final int chunkSize);
 
-    void stop();
+	@Nonnull
+	@CheckReturnValue
+	default Flow.Publisher<List<AudioTrack>> streamTracks(@Nonnull final String identifier) {
+		return streamTracks(identifier, 100);
+	}
 
-	void pause();
+	// the returned stages complete once the command has been handed to the node's socket.
+	@Nonnull
+	CompletionStage<Void> play(@Nonnull final String trackData, @Nonnegative final long startTime,
+	                           @Nonnegative final long endTime, final boolean noReplace);
 
-	void resume();
+	@Nonnull
+	CompletionStage<Void> stop();
 
-	void destroy();
+	@Nonnull
+	CompletionStage<Void> pause();
 
-	void seek(@Nonnegative final long position);
+	@Nonnull
+	CompletionStage<Void> resume();
 
-	void volume(@Nonnegative final int volume);
+	@Nonnull
+	CompletionStage<Void> destroy();
+
+	@Nonnull
+	CompletionStage<Void> seek(@Nonnegative final long position);
+
+	@Nonnull
+	CompletionStage<Void> volume(@Nonnegative final int volume);
 
 	void connect(@Nonnull final AudioNode node, @Nullable final Runnable runnable);
 
-	void initialize(@Nonnull final String sessionId, @Nonnull final String voiceToken,
-	                @Nonnull final String endpoint);
+	@Nonnull
+	CompletionStage<Void> initialize(@Nonnull final String sessionId, @Nonnull final String voiceToken,
+	                                 @Nonnull final String endpoint);
 
 	default void connect(@Nonnull final AudioNode node) {
 		connect(node, null);
 	}
 
-	default void play(@Nonnull final AudioTrack track, @Nonnegative final long startTime,
-	                  @Nonnegative final long endTime, final boolean noReplace) {
-		play(AudioTrackUtil.fromTrack(track), startTime, endTime, noReplace);
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final AudioTrack track, @Nonnegative final long startTime,
+	                                   @Nonnegative final long endTime, final boolean noReplace) {
+		return play(AudioTrackUtil.fromTrack(track), startTime, endTime, noReplace);
+	}
+
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final AudioTrack track, @Nonnegative final long startTime,
+	                                   @Nonnegative final long endTime) {
+		return play(track, startTime, endTime, false);
+	}
+
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final AudioTrack track, @Nonnegative final long startTime) {
+		return play(track, startTime, track.getDuration());
 	}
 
-	default void play(@Nonnull final AudioTrack track, @Nonnegative final long startTime,
-	                  @Nonnegative final long endTime) {
-		play(track, startTime, endTime, false);
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final AudioTrack track, final boolean noReplace) {
+		return play(track, 0, track.getDuration(), noReplace);
 	}
 
-	default void play(@Nonnull final AudioTrack track, @Nonnegative final long startTime) {
-		play(track, startTime, track.getDuration());
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final AudioTrack track) {
+		return play(track, false);
 	}
 
-	default void play(@Nonnull final AudioTrack track, final boolean noReplace) {
-		play(track, 0, track.getDuration(), noReplace);
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final TrackInfo info, final boolean noReplace) {
+		return play(info.encoded(), 0, info.length(), noReplace);
 	}
 
-	default void play(@Nonnull final AudioTrack track) {
-		play(track, false);
+	@Nonnull
+	default CompletionStage<Void> play(@Nonnull final TrackInfo info) {
+		return play(info, false);
 	}
 }
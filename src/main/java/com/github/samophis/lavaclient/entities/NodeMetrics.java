@@ -0,0 +1,111 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+@SuppressWarnings("unused")
+public interface NodeMetrics {
+	@CheckReturnValue
+	@Nonnull
+	AudioNode node();
+
+	// one entry per event lane, empty when lanes are disabled.
+	@CheckReturnValue
+	@Nonnull
+	int[] laneQueueDepths();
+
+	@CheckReturnValue
+	@Nonnegative
+	int outboundQueueDepth();
+
+	@CheckReturnValue
+	@Nonnegative
+	long averageOutboundQueueNanos();
+
+	@CheckReturnValue
+	@Nonnegative
+	long maxOutboundQueueNanos();
+
+	@CheckReturnValue
+	@Nonnegative
+	long droppedCommands();
+
+	@CheckReturnValue
+	@Nonnegative
+	long rejectedCommands();
+
+	// volume/seek/pause commands that were superseded within the coalescing window and never sent.
+	@CheckReturnValue
+	@Nonnegative
+	long collapsedCommands();
+
+	@CheckReturnValue
+	@Nonnegative
+	int inFlightLoads();
+
+	// loads waiting for one of the node's maxConcurrentLoads slots.
+	@CheckReturnValue
+	@Nonnegative
+	int queuedLoads();
+
+	// exponentially weighted, over loadtracks requests made to this node.
+	@CheckReturnValue
+	@Nonnegative
+	double restLatencyMillis();
+
+	@CheckReturnValue
+	@Nonnegative
+	double restLatencyP95Millis();
+
+	// poolSize * pipelining limit, the REST requests this node's connections can carry at once.
+	@CheckReturnValue
+	@Nonnegative
+	int httpPoolCapacity();
+
+	@CheckReturnValue
+	@Nonnegative
+	int httpActiveRequests();
+
+	// between 0 and 1.
+	@CheckReturnValue
+	@Nonnegative
+	double httpPoolUtilisation();
+
+	// requests waiting on vert.x for a free connection.
+	@CheckReturnValue
+	@Nonnegative
+	int httpWaitQueueDepth();
+
+	@CheckReturnValue
+	@Nonnegative
+	long averageHttpWaitNanos();
+
+	@CheckReturnValue
+	@Nonnegative
+	long maxHttpWaitNanos();
+
+	@CheckReturnValue
+	@Nonnull
+	CircuitState circuitState();
+
+	// the timeout the next loadtracks request to this node will get.
+	@CheckReturnValue
+	@Nonnegative
+	long restTimeoutMillis();
+}
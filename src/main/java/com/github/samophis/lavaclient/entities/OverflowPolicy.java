@@ -0,0 +1,25 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities;
+
+public enum OverflowPolicy {
+	// refuse the new command.
+	REJECT,
+	// make room by dropping the oldest queued volume/seek/pause, falling back to REJECT if there is none.
+	DROP_OLDEST_NON_CRITICAL,
+	// park the command until the queue drains below the low watermark, rejecting once high watermark commands are parked.
+	BLOCK
+}
@@ -0,0 +1,41 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+
+// client-wide counters for routed track loads, see LavaClient#loadTracksAsync.
+@SuppressWarnings("unused")
+public interface RestMetrics {
+	@CheckReturnValue
+	@Nonnegative
+	long loads();
+
+	@CheckReturnValue
+	@Nonnegative
+	long hedgedLoads();
+
+	// hedged loads where the second node answered first.
+	@CheckReturnValue
+	@Nonnegative
+	long hedgeWins();
+
+	// hedges that were due but skipped because of LavaClientOptions#hedgeRate.
+	@CheckReturnValue
+	@Nonnegative
+	long throttledHedges();
+}
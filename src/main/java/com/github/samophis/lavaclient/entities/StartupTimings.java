@@ -0,0 +1,33 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+// phase name -> duration in nanoseconds, in the order the phases finished.
+@SuppressWarnings("unused")
+public interface StartupTimings {
+	@CheckReturnValue
+	@Nonnull
+	Map<String, Long> phases();
+
+	@CheckReturnValue
+	@Nonnegative
+	long nanos(@Nonnull final String phase);
+}
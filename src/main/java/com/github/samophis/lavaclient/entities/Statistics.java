@@ -17,7 +17,6 @@ package com.github.samophis.lavaclient.entities;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
-import javax.annotation.Nullable;
 
 @SuppressWarnings("unused")
 public interface Statistics {
@@ -61,18 +60,19 @@ public interface Statistics {
 	@Nonnegative
 	double lavalinkLoad();
 
+	// the frame counters below are only meaningful when this is true.
+	@CheckReturnValue
+	boolean frameStatsPresent();
+
 	@CheckReturnValue
-	@Nullable
 	@Nonnegative
-	Long sentFrames();
+	long sentFrames();
 
 	@CheckReturnValue
-	@Nullable
 	@Nonnegative
-	Long nulledFrames();
+	long nulledFrames();
 
 	@CheckReturnValue
-	@Nullable
 	@Nonnegative
-	Long deficitFrames();
+	long deficitFrames();
 }
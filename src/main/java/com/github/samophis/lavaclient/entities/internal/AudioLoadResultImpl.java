@@ -2,7 +2,12 @@ package com.github.samophis.lavaclient.entities.internal;
 
 import com.github.samophis.lavaclient.entities.AudioLoadResult;
 import com.github.samophis.lavaclient.entities.LoadType;
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.util.TrackDecoder;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import io.vertx.core.json.JsonObject;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
@@ -11,14 +16,14 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
 @Accessors(fluent = true)
 @RequiredArgsConstructor
 public class AudioLoadResultImpl implements AudioLoadResult {
-	private final List<AudioTrack> tracks;
+	private final List<String> encodedTracks;
 	private final LoadType type;
 
 	@Getter(onMethod_ = {@CheckReturnValue, @Nullable})
@@ -30,17 +35,71 @@ public class AudioLoadResultImpl implements AudioLoadResult {
 	@Getter(onMethod_ = @CheckReturnValue)
 	private final boolean playlist;
 
+	// filled up front by the decode pool when there is one, otherwise on first use by whoever asks.
+	@Getter(AccessLevel.NONE)
+	private volatile List<AudioTrack> decodedTracks;
+
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final List<TrackInfo> trackInfos = encodedTracks
+			.stream()
+			.map(TrackDecoder::decode)
+			.collect(Collectors.toUnmodifiableList());
+
+	// decoding is left for later, so callers that only want the blobs never touch lavaplayer.
+	@CheckReturnValue
+	@Nonnull
+	public static AudioLoadResultImpl from(@Nonnull final JsonObject json) {
+		final var type = LoadType.from(json.getString("loadType"));
+		final var playlistInfo = json.getJsonObject("playlistInfo");
+		final var isPlaylist = playlistInfo != null && !playlistInfo.isEmpty();
+		final var tracks = json.getJsonArray("tracks")
+				.stream()
+				.map(obj -> ((JsonObject) obj).getString("track"))
+				.collect(Collectors.toUnmodifiableList());
+		var playlistName = (String) null;
+		var selectedTrack = (Integer) null;
+
+		if (isPlaylist) {
+			playlistName = playlistInfo.getString("name");
+			selectedTrack = playlistInfo.getInteger("selectedTrack");
+		}
+		return new AudioLoadResultImpl(tracks, type, playlistName, selectedTrack, isPlaylist);
+	}
+
+	// same blobs, but decoded separately, so callers sharing a cached result never share AudioTrack instances.
+	@CheckReturnValue
+	@Nonnull
+	public AudioLoadResultImpl copy() {
+		return new AudioLoadResultImpl(encodedTracks, type, playlistName, selectedTrack, playlist);
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	public AudioLoadResultImpl withTracks(@Nonnull final List<AudioTrack> tracks) {
+		final var result = copy();
+		result.decodedTracks = tracks;
+		return result;
+	}
+
 	@CheckReturnValue
 	@Nonnull
 	@Override
 	public List<AudioTrack> tracks() {
-		return Collections.unmodifiableList(tracks);
+		var tracks = decodedTracks;
+		if (tracks == null) {
+			tracks = encodedTracks
+					.stream()
+					.map(AudioTrackUtil::fromString)
+					.collect(Collectors.toUnmodifiableList());
+			decodedTracks = tracks;
+		}
+		return tracks;
 	}
 
 	@CheckReturnValue
 	@Nullable
 	@Override
 	public AudioTrack first() {
-		return tracks.isEmpty() ? null : tracks.get(0);
+		return encodedTracks.isEmpty() ? null : tracks().get(0);
 	}
 }
@@ -17,20 +17,33 @@ package com.github.samophis.lavaclient.entities.internal;
 
 import com.github.samophis.lavaclient.entities.*;
 import com.github.samophis.lavaclient.events.*;
-import com.github.samophis.lavaclient.exceptions.RemoteTrackException;
-import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.exceptions.CircuitOpenException;
+import com.github.samophis.lavaclient.exceptions.HttpTrackException;
+import com.github.samophis.lavaclient.util.FrameScanner;
+import com.github.samophis.lavaclient.util.TrackDecoder;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketFrame;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
 import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.experimental.Accessors;
+import me.escoffier.vertx.completablefuture.VertxCompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,14 +51,20 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 @Accessors(fluent = true)
 public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 	private static final Logger LOGGER = LoggerFactory.getLogger(AudioNodeImpl.class);
-	@Getter private final LavaClient client;
+	@Getter private final LavaClientImpl client;
 	@Getter private final String baseUrl;
 	@Getter private final String relativePath;
 	@Getter private final String password;
@@ -54,30 +73,63 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 	@Getter private final String restUrl;
 	@Getter private final LoadBalancer loadBalancer;
 	@Getter private boolean available;
+	@Getter private final NodeMetrics metrics;
+	private final boolean streamingDecode;
+	private final FrameScanner scanner;
+	@Getter(AccessLevel.PACKAGE) private final EventLane[] lanes;
+	@Getter(AccessLevel.PACKAGE) private final OutboundQueue outbound;
+	private final long coalesceWindow;
+	@Getter(AccessLevel.PACKAGE) private CommandCoalescer coalescer;
+	@Getter(AccessLevel.PACKAGE) private final LoadLimiter loads;
+	@Getter(AccessLevel.PACKAGE) private final HttpPool http;
+	@Getter(AccessLevel.PACKAGE) private final DecodePool decodePool;
+	@Getter(AccessLevel.PACKAGE) private final LatencyTracker restLatency = new LatencyTracker();
+	@Getter(AccessLevel.PACKAGE) private final CircuitBreaker breaker;
+	private final long restTimeoutMin;
+	private final long restTimeoutMax;
+	private final double restTimeoutMultiplier;
 
 	private final String controlAddress;
-	private final String recvAddress;
-	@Getter(AccessLevel.PACKAGE) private final String sendAddress;
+	private final EventRegistry events;
 
-	@Setter @Getter private Statistics statistics;
+	@Getter private volatile Statistics statistics;
 	private HttpClient httpClient;
 	private WebSocket socket;
 	private List<MessageConsumer<?>> consumers;
+	private Buffer fragments;
 
-	AudioNodeImpl(@Nonnull final LavaClient client, @Nonnull final String baseUrl,
+	AudioNodeImpl(@Nonnull final LavaClientImpl client, @Nonnull final String baseUrl,
 	              @Nullable final String relativePath, @Nonnull final String password,
-	              @Nonnegative final int port) {
+	              @Nonnegative final int port, @Nonnull final AudioNodeOptions options) {
 		this.client = client;
 		this.baseUrl = baseUrl;
 		this.relativePath = relativePath;
 		this.password = password;
 		this.port = port;
+		// lanes need the guild id before parsing, which only the scanner can give us cheaply.
+		final var eventLanes = client.options().eventLanes();
+		this.streamingDecode = client.options().streamingDecode() || eventLanes > 0;
+		scanner = this.streamingDecode ? new FrameScanner() : null;
+		lanes = new EventLane[eventLanes];
+		for (var i = 0; i < eventLanes; i++) {
+			lanes[i] = new EventLane();
+		}
+		outbound = new OutboundQueue(options.outboundHighWatermark(), options.outboundLowWatermark(),
+				options.overflowPolicy());
+		coalesceWindow = options.coalesceWindow();
+		loads = new LoadLimiter(options.maxConcurrentLoads());
+		http = new HttpPool(client.vertx(), options);
+		breaker = new CircuitBreaker(options, this::circuitChanged);
+		restTimeoutMin = options.restTimeoutMin();
+		restTimeoutMax = Math.max(restTimeoutMin, options.restTimeoutMax());
+		restTimeoutMultiplier = options.restTimeoutMultiplier();
+		decodePool = client.decodePool();
+		metrics = new NodeMetricsImpl(this);
 		websocketUrl = String.format("ws://%s:%d%s", baseUrl, port, relativePath != null ? "/" + relativePath : "");
 		restUrl = String.format("http://%s:%d", baseUrl, port);
 		loadBalancer = new LoadBalancerImpl(this);
 		controlAddress = controlMessageAddress();
-		recvAddress = eventRecvMessageAddress();
-		sendAddress = eventSendMessageAddress();
+		events = new EventRegistry();
 	}
 
 	@Override
@@ -94,7 +146,24 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		if (available) {
 			throw new IllegalStateException(String.format("connection to audio node: %s is already open!", baseUrl));
 		}
-		vertx.eventBus().send(controlAddress, new ControlMessage<>(ControlKey.CONNECT, callback));
+		connect().setHandler(result -> {
+			if (result.succeeded() && callback != null) {
+				callback.run();
+			}
+		});
+	}
+
+	// completes once the socket is open, or fails with whatever stopped it from opening.
+	@Nonnull
+	Future<Void> connect() {
+		final Future<Void> connected = Future.future();
+		if (available) {
+			connected.fail(new IllegalStateException(String.format("connection to audio node: %s is already open!",
+					baseUrl)));
+			return connected;
+		}
+		vertx.eventBus().send(controlAddress, new ControlMessage<>(ControlKey.CONNECT, connected));
+		return connected;
 	}
 
 	@Override
@@ -114,13 +183,40 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		vertx.eventBus().send(controlAddress, new ControlMessage<>(ControlKey.DISCONNECT, callback));
 	}
 
+	@Override
+	@SuppressWarnings("rawtypes")
+	public void start(@Nonnull final Future<Void> startFuture) {
+		start();
+		if (lanes.length == 0) {
+			startFuture.complete();
+			return;
+		}
+		// deployed from our own context, so vert.x undeploys them alongside this verticle.
+		final List<Future> deployments = new ArrayList<>(lanes.length);
+		for (final var lane : lanes) {
+			final var deployment = Future.<String>future();
+			vertx.deployVerticle(lane, deployment);
+			deployments.add(deployment);
+		}
+		CompositeFuture.all(deployments).setHandler(result -> {
+			if (result.succeeded()) {
+				startFuture.complete();
+			} else {
+				LOGGER.error("failed to deploy event lanes for node: {}", baseUrl, result.cause());
+				startFuture.fail(result.cause());
+			}
+		});
+	}
+
 	@Override
 	public void start() {
 		final var bus = vertx.eventBus();
-		consumers = new ArrayList<>(2);
+		consumers = new ArrayList<>(1);
 		consumers.add(bus.consumer(controlAddress, this::handleControlMessage));
-		consumers.add(bus.consumer(sendAddress, this::handleSentEvent));
 		httpClient = vertx.createHttpClient();
+		if (coalesceWindow > 0) {
+			coalescer = new CommandCoalescer(vertx, coalesceWindow, outbound::offer);
+		}
 	}
 
 	@Override
@@ -128,16 +224,19 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		closeConnection();
 		httpClient.close();
 		httpClient = null;
+		http.close();
 		consumers.forEach(MessageConsumer::unregister);
 	}
 
+	@SuppressWarnings("unchecked")
 	private void handleControlMessage(@Nonnull final Message<?> msg) {
 		var message = (ControlMessage<?>) msg.body();
 		switch (message.key) {
 			case CONNECT:
-				final var onConnect = (Runnable) message.object;
+				final var connected = (Future<Void>) message.object;
 				if (socket != null) {
-					throw new IllegalStateException("socket already created!");
+					connected.fail(new IllegalStateException("socket already created!"));
+					return;
 				}
 				var headers = MultiMap.caseInsensitiveMultiMap()
 				                      .add("Authorization", password)
@@ -146,11 +245,17 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 				httpClient.websocketAbs(websocketUrl, headers, null, null, ws -> {
 					socket = ws;
 					available = true;
-					if (onConnect != null) {
-						onConnect.run();
+					outbound.attach(ws);
+					connected.complete();
+					if (streamingDecode) {
+						socket.frameHandler(this::handleReceivedFrame);
+					} else {
+						socket.textMessageHandler(this::handleReceivedMessage);
 					}
-					socket.textMessageHandler(this::handleReceivedMessage);
-				}, err -> LOGGER.error("Error establishing a WebSocket connection! {}", err));
+				}, err -> {
+					LOGGER.error("Error establishing a WebSocket connection! {}", err);
+					connected.fail(err);
+				});
 				break;
 			case DISCONNECT:
 				final var onDisconnect = (Runnable) message.object;
@@ -173,6 +278,8 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 				socket.closeHandler(_vd -> {
 					available = false;
 					socket = null;
+					outbound.detach();
+					fragments = null;
 					if (onDisconnect != null) {
 						onDisconnect.run();
 					}
@@ -181,11 +288,232 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		}
 	}
 
-	private void handleSentEvent(@Nonnull final Message<JsonObject> msg) {
+	@Nonnull
+	@Override
+	public CompletionStage<AudioLoadResult> loadTracksAsync(@Nonnull final String identifier) {
+		final var cache = client.loadResultCache();
+		final var loaded = cache == null
+				? client.loadThroughStore(identifier, this::load)
+				: cache.get(identifier, id -> client.loadThroughStore(id, this::load));
+		return loaded.thenCompose(result -> client.decodedCopy((AudioLoadResultImpl) result));
+	}
+
+	// straight to this node, bypassing the load result cache.
+	@Nonnull
+	@SuppressWarnings("deprecation") // we're not using vert.x 4, no need to worry on 3.6.2
+	CompletionStage<AudioLoadResult> load(@Nonnull final String identifier) {
+		final var future = new VertxCompletableFuture<AudioLoadResult>(client.vertx());
+		final var path = loadPath(identifier);
+		loads.execute(release -> {
+			final var permit = breaker.tryAcquire();
+			if (permit == CircuitBreaker.REFUSED) {
+				release.run();
+				future.completeExceptionally(circuitOpen());
+				return;
+			}
+			final var request = http.client().request(HttpMethod.GET, port, baseUrl, path).timeout(restTimeout());
+			if (!password.isEmpty()) {
+				request.putHeader("Authorization", password);
+			}
+			final var sent = System.nanoTime();
+			http.send(request, result -> {
+				release.run();
+				recordRestResult(result, sent, permit);
+				if (result.succeeded()) {
+					final var response = result.result();
+					if (response.statusCode() != 200) {
+						LOGGER.warn("status code: {}, audio failed to load!", response.statusCode());
+						future.completeExceptionally(new HttpTrackException("failed to load audio!",
+								response.statusCode(), response.statusMessage()));
+						return;
+					}
+					if (decodePool == null) {
+						future.complete(AudioLoadResultImpl.from(response.bodyAsJsonObject()));
+						return;
+					}
+					// parsing a big playlist is a stall too, decoding is left to decodedCopy so it only happens once.
+					final var body = response.body();
+					decodePool.execute(() -> AudioLoadResultImpl.from(new JsonObject(body))).setHandler(parsed -> {
+						if (parsed.succeeded()) {
+							future.complete(parsed.result());
+						} else {
+							future.completeExceptionally(parsed.cause());
+						}
+					});
+				} else {
+					LOGGER.error("error executing http request!", result.cause());
+					future.completeExceptionally(result.cause());
+				}
+			});
+		});
+		return future;
+	}
+
+	// POST /decodetracks, sharing the load slots, breaker and timeout with track loads.
+	@Nonnull
+	CompletionStage<List<TrackInfo>> decodeTracks(@Nonnull final List<String> encoded) {
+		final var future = new VertxCompletableFuture<List<TrackInfo>>(client.vertx());
+		loads.execute(release -> {
+			final var permit = breaker.tryAcquire();
+			if (permit == CircuitBreaker.REFUSED) {
+				release.run();
+				future.completeExceptionally(circuitOpen());
+				return;
+			}
+			final var request = http.client().request(HttpMethod.POST, port, baseUrl, "/decodetracks")
+					.timeout(restTimeout())
+					.putHeader("Content-Type", "application/json");
+			if (!password.isEmpty()) {
+				request.putHeader("Authorization", password);
+			}
+			final var sent = System.nanoTime();
+			http.send(request, new JsonArray(encoded).toBuffer(), result -> {
+				release.run();
+				recordBreakerResult(result, System.nanoTime() - sent, permit);
+				if (result.failed()) {
+					future.completeExceptionally(result.cause());
+					return;
+				}
+				final var response = result.result();
+				if (response.statusCode() != 200) {
+					future.completeExceptionally(new HttpTrackException("failed to decode tracks!",
+							response.statusCode(), response.statusMessage()));
+					return;
+				}
+				try {
+					future.complete(trackInfos(encoded, response.bodyAsJsonArray()));
+				} catch (final RuntimeException exc) {
+					future.completeExceptionally(exc);
+				}
+			});
+		});
+		return future;
+	}
+
+	// lavalink leaves the version out, which is cheap to read from the blob's header ourselves.
+	@CheckReturnValue
+	@Nonnull
+	private static List<TrackInfo> trackInfos(@Nonnull final List<String> encoded, @Nonnull final JsonArray decoded) {
+		if (decoded.size() != encoded.size()) {
+			throw new IllegalStateException(String.format("sent %d tracks to decode, got %d back!", encoded.size(),
+					decoded.size()));
+		}
+		final var infos = new ArrayList<TrackInfo>(decoded.size());
+		for (var i = 0; i < decoded.size(); i++) {
+			final var element = decoded.getJsonObject(i);
+			// older v3 servers answer with the bare info objects.
+			final var info = element.containsKey("info") ? element.getJsonObject("info") : element;
+			final var track = encoded.get(i);
+			infos.add(new TrackInfoImpl(track, TrackDecoder.version(track), info.getString("title"),
+					info.getString("author"), info.getLong("length", 0L), info.getString("identifier"),
+					info.getBoolean("isStream", false), info.getString("uri"), info.getString("sourceName"),
+					info.getLong("position", 0L)));
+		}
+		return Collections.unmodifiableList(infos);
+	}
+
+	// a few p95s, so a hung node is given up on long before a healthy one would ever hit it.
+	@CheckReturnValue
+	@Nonnegative
+	long restTimeout() {
+		if (!restLatency.sampled()) {
+			return restTimeoutMax;
+		}
+		final var timeout = (long) Math.ceil(restLatency.p95Millis() * restTimeoutMultiplier);
+		return Math.max(restTimeoutMin, Math.min(restTimeoutMax, timeout));
+	}
+
+	// feeds a finished loadtracks call into the latency tracker and the circuit breaker.
+	void recordRestResult(@Nonnull final AsyncResult<? extends HttpResponse<?>> result, final long sent,
+	                      final long permit) {
+		final var nanos = System.nanoTime() - sent;
+		// a timed out call took at least this long, so the next timeout grows instead of failing the same way.
+		if (result.succeeded() || result.cause() instanceof TimeoutException) {
+			restLatency.record(nanos);
+		}
+		recordBreakerResult(result, nanos, permit);
+	}
+
+	// for calls whose duration says nothing about loadtracks latency.
+	void recordBreakerResult(@Nonnull final AsyncResult<? extends HttpResponse<?>> result,
+	                         @Nonnegative final long nanos, final long permit) {
+		recordBreakerResult(result.failed() || result.result().statusCode() >= 500, nanos, permit);
+	}
+
+	// for calls made outside the WebClient, where the caller works out whether it failed.
+	void recordBreakerResult(final boolean failure, @Nonnegative final long nanos, final long permit) {
+		if (failure) {
+			breaker.failed(permit);
+		} else {
+			breaker.succeeded(permit, nanos);
+		}
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	CircuitOpenException circuitOpen() {
+		return new CircuitOpenException(String.format("circuit for audio node: %s is open!", baseUrl));
+	}
+
+	private void circuitChanged(@Nonnull final CircuitState from, @Nonnull final CircuitState to,
+	                            final double failureRate) {
+		if (to == CircuitState.OPEN) {
+			LOGGER.warn("circuit for audio node: {} opened, failure rate: {}", baseUrl, failureRate);
+		} else {
+			LOGGER.info("circuit for audio node: {} went from {} to {}", baseUrl, from, to);
+		}
+		final var event = new CircuitStateChangeEvent(this, from, to, failureRate);
+		final var nodeContext = context;
+		if (nodeContext == null) {
+			events.dispatch(event);
+		} else {
+			nodeContext.runOnContext(_v -> events.dispatch(event));
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Flow.Publisher<List<AudioTrack>> streamTracks(@Nonnull final String identifier,
+	                                                     @Nonnegative final int chunkSize) {
+		return new TrackStream(this, identifier, chunkSize);
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	static String loadPath(@Nonnull final String identifier) {
+		return "/loadtracks?identifier=" + URLEncoder.encode(identifier, StandardCharsets.UTF_8);
+	}
+
+	@CheckReturnValue
+	@Nullable
+	Context nodeContext() {
+		return context;
+	}
+
+	// skips the event bus entirely, hopping onto our context only when the caller isn't already on it.
+	@Nonnull
+	CompletionStage<Void> send(@Nonnull final OutboundCommand command) {
+		final var nodeContext = context;
+		if (nodeContext == null) {
+			command.future().completeExceptionally(new IllegalStateException("node isn't deployed!"));
+		} else if (nodeContext == Vertx.currentContext()) {
+			handleSentCommand(command);
+		} else {
+			nodeContext.runOnContext(_v -> handleSentCommand(command));
+		}
+		return command.future();
+	}
+
+	private void handleSentCommand(@Nonnull final OutboundCommand command) {
 		if (!available) {
-			throw new IllegalStateException("socket isn't available!");
+			command.future().completeExceptionally(new IllegalStateException("socket isn't available!"));
+			return;
+		}
+		if (coalescer != null) {
+			coalescer.offer(command);
+		} else {
+			outbound.offer(command);
 		}
-		socket.writeTextMessage(msg.body().toString());
 	}
 
 	@CheckReturnValue
@@ -201,64 +529,56 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 	}
 
 	@CheckReturnValue
-	@Nonnull
+	@Nullable
 	private LavalinkEvent eventFromRawStats(@Nonnull final JsonObject stats) {
-		// objects
 		final var cpuObject = stats.getJsonObject("cpu");
 		final var memObject = stats.getJsonObject("memory");
 		final var frameObject = stats.getJsonObject("frameStats", null);
-		final var cpuCores = cpuObject.getInteger("cores");
-		// actual fields
-		final var players = stats.getInteger("players");
-		final var playingPlayers = stats.getInteger("playingPlayers");
-		final var systemLoad = cpuObject.getDouble("systemLoad");
-		final var lavalinkLoad = cpuObject.getDouble("lavalinkLoad");
-		final var uptime = stats.getLong("uptime");
-
-		final var freeMemory = memObject.getInteger("free");
-		final var allocatedMemory = memObject.getInteger("allocated");
-		final var usedMemory = memObject.getInteger("used");
-		final var reservableMemory = memObject.getInteger("reservable");
-
-		var sentFrames = (Long) null;
-		var nulledFrames = (Long) null;
-		var deficitFrames = (Long) null;
-		if (frameObject != null) {
-			sentFrames = frameObject.getLong("sent");
-			nulledFrames = frameObject.getLong("nulled");
-			deficitFrames = frameObject.getLong("deficit");
-		}
-		final var statistics = new StatisticsImpl()
-				.players(players)
-				.playingPlayers(playingPlayers)
-				.uptime(uptime)
-				.cpuCores(cpuCores)
-				.systemLoad(systemLoad)
-				.lavalinkLoad(lavalinkLoad)
-				.usedMemory(usedMemory)
-				.allocatedMemory(allocatedMemory)
-				.freeMemory(freeMemory)
-				.reservableMemory(reservableMemory)
-				.sentFrames(sentFrames)
-				.nulledFrames(nulledFrames)
-				.deficitFrames(deficitFrames);
-		return new StatsUpdateEvent(this, statistics);
+		final var frameStatsPresent = frameObject != null;
+		final var statistics = new StatisticsImpl(
+				(int) longValue(stats, "players"),
+				(int) longValue(stats, "playingPlayers"),
+				(int) longValue(cpuObject, "cores"),
+				longValue(stats, "uptime"),
+				longValue(memObject, "free"),
+				longValue(memObject, "allocated"),
+				longValue(memObject, "used"),
+				longValue(memObject, "reservable"),
+				doubleValue(cpuObject, "systemLoad"),
+				doubleValue(cpuObject, "lavalinkLoad"),
+				frameStatsPresent,
+				frameStatsPresent ? longValue(frameObject, "sent") : 0,
+				frameStatsPresent ? longValue(frameObject, "nulled") : 0,
+				frameStatsPresent ? longValue(frameObject, "deficit") : 0);
+		this.statistics = statistics;
+		return events.hasListeners(EventType.STATS_UPDATE_EVENT) ? new StatsUpdateEvent(this, statistics) : null;
 	}
 
+	// getValue returns the Number jackson already parsed, so reading it as a primitive never boxes.
 	@CheckReturnValue
-	@Nonnull
+	private static long longValue(@Nonnull final JsonObject object, @Nonnull final String key) {
+		final var value = object.getValue(key);
+		return value instanceof Number ? ((Number) value).longValue() : 0L;
+	}
+
+	@CheckReturnValue
+	private static double doubleValue(@Nonnull final JsonObject object, @Nonnull final String key) {
+		final var value = object.getValue(key);
+		return value instanceof Number ? ((Number) value).doubleValue() : 0d;
+	}
+
+	@CheckReturnValue
+	@Nullable
 	private LavalinkEvent eventFromRawPlayerUpdate(@Nonnull final JsonObject playerUpdate) {
 		final var player = playerFromRawData(playerUpdate);
 		final var state = playerUpdate.getJsonObject("state");
-		final var timestamp = state.getLong("time");
-		final var position = state.getLong("position");
-		if (position != null) {
-			player.position(position);
-		}
-		if (timestamp != null) {
-			player.timestamp(timestamp);
-		}
-		return new PlayerUpdateEvent(this, player, timestamp, position);
+		final var timestamp = state.getValue("time");
+		final var position = state.getValue("position");
+		player.updateState(position instanceof Number ? ((Number) position).longValue() : player.position(),
+				timestamp instanceof Number ? ((Number) timestamp).longValue() : player.timestamp());
+		return events.hasListeners(EventType.PLAYER_UPDATE_EVENT)
+				? new PlayerUpdateEvent(this, player, player.timestamp(), player.position())
+				: null;
 	}
 
 	@CheckReturnValue
@@ -268,22 +588,20 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		switch (type) {
 			case "TrackEndEvent":
 				final var player1 = playerFromRawData(lavalinkEvent);
-				player1.playingTrack(null);
-				final var track1 = AudioTrackUtil.fromString(lavalinkEvent.getString("track"));
 				final var reason = AudioTrackEndReason.valueOf(lavalinkEvent.getString("reason"));
-				return new TrackEndEvent(track1, this, player1, reason);
+				player1.trackEnded(reason);
+				return new TrackEndEvent(lavalinkEvent.getString("track"), this, player1, reason);
 			case "TrackStuckEvent":
 				final var player2 = playerFromRawData(lavalinkEvent);
-				final var track2 = AudioTrackUtil.fromString(lavalinkEvent.getString("track"));
-				return new TrackStuckEvent(track2, this, player2, lavalinkEvent.getLong("thresholdMs"));
+				return new TrackStuckEvent(lavalinkEvent.getString("track"), this, player2,
+						lavalinkEvent.getLong("thresholdMs"));
 			case "TrackExceptionEvent":
 				final var player3 = playerFromRawData(lavalinkEvent);
-				final var track3 = AudioTrackUtil.fromString(lavalinkEvent.getString("track"));
-				return new TrackExceptionEvent(track3, this, player3, new RemoteTrackException(track3, this,
-						player3, lavalinkEvent.getString("error")));
+				return new TrackExceptionEvent(lavalinkEvent.getString("track"), this, player3,
+						lavalinkEvent.getString("error"));
 			case "WebSocketClosedEvent":
 				final var player4 = playerFromRawData(lavalinkEvent);
-				player4.playingTrack(null); // probably safer to do this instead of maintaining old state
+				player4.clearTrack(); // probably safer to do this instead of maintaining old state
 				return new WebSocketClosedEvent(this, lavalinkEvent.getString("reason"), lavalinkEvent.getBoolean("byRemote"),
 						lavalinkEvent.getInteger("code"));
 			default:
@@ -292,8 +610,71 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		}
 	}
 
+	private void handleReceivedFrame(@Nonnull final WebSocketFrame frame) {
+		if (!frame.isText() && !frame.isBinary() && !frame.isContinuation()) {
+			return;
+		}
+		if (!frame.isFinal()) {
+			if (fragments == null) {
+				fragments = Buffer.buffer();
+			}
+			fragments.appendBuffer(frame.binaryData());
+			return;
+		}
+		var data = frame.binaryData();
+		if (fragments != null) {
+			data = fragments.appendBuffer(data);
+			fragments = null;
+		}
+		handleReceivedBuffer(data);
+	}
+
+	private void handleReceivedBuffer(@Nonnull final Buffer data) {
+		if (!scanner.scan(data)) {
+			handleReceivedMessage(new JsonObject(data));
+			return;
+		}
+		final var isPlayerUpdate = scanner.op() == FrameScanner.OP_PLAYER_UPDATE && scanner.hasGuildId();
+		if (lanes.length == 0 || !scanner.hasGuildId()) {
+			if (isPlayerUpdate) {
+				handlePlayerUpdate(scanner.guildId(), scanner.hasPosition(), scanner.position(), scanner.hasTime(),
+						scanner.time());
+			} else {
+				handleReceivedMessage(new JsonObject(data));
+			}
+			return;
+		}
+		final var guildId = scanner.guildId();
+		final var lane = lanes[Math.floorMod(Long.hashCode(guildId * 0x9E3779B97F4A7C15L), lanes.length)];
+		if (isPlayerUpdate) {
+			final var hasPosition = scanner.hasPosition();
+			final var position = scanner.position();
+			final var hasTime = scanner.hasTime();
+			final var time = scanner.time();
+			lane.execute(() -> handlePlayerUpdate(guildId, hasPosition, position, hasTime, time));
+		} else {
+			lane.execute(() -> handleReceivedMessage(new JsonObject(data)));
+		}
+	}
+
+	private void handlePlayerUpdate(final long guildId, final boolean hasPosition, final long position,
+	                                final boolean hasTime, final long time) {
+		final var player = (LavaPlayerImpl) client.player(guildId);
+		if (player == null) {
+			LOGGER.warn("unknown player for guild id: {}", Long.toUnsignedString(guildId));
+			return;
+		}
+		player.updateState(hasPosition ? position : player.position(), hasTime ? time : player.timestamp());
+		if (events.hasListeners(EventType.PLAYER_UPDATE_EVENT)) {
+			events.dispatch(new PlayerUpdateEvent(this, player, player.timestamp(), player.position()));
+		}
+	}
+
 	private void handleReceivedMessage(@Nonnull final String msg) {
-		final var json = new JsonObject(msg);
+		handleReceivedMessage(new JsonObject(msg));
+	}
+
+	private void handleReceivedMessage(@Nonnull final JsonObject json) {
 		final var op = json.getString("op", "unknown");
 		var event = (LavalinkEvent) null;
 		switch (op) {
@@ -312,7 +693,9 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 			default:
 				LOGGER.warn("unsupported lavalink opcode! {}", op);
 		}
-		vertx.eventBus().publish(recvAddress, event);
+		if (event != null) {
+			events.dispatch(event);
+		}
 	}
 
 	@CheckReturnValue
@@ -321,24 +704,14 @@ public class AudioNodeImpl extends AbstractVerticle implements AudioNode {
 		return String.format("lavaclient:%s:control", baseUrl);
 	}
 
-	@CheckReturnValue
-	@Nonnull
-	private String eventRecvMessageAddress() {
-		return String.format("lavaclient:%s:event-recv", baseUrl);
-	}
-
-	@CheckReturnValue
-	@Nonnull
-	private String eventSendMessageAddress() {
-		return String.format("lavaclient:%s:event-send", baseUrl);
+	@Override
+	public <T extends LavalinkEvent> void on(@Nonnull final EventType<T> type, @Nonnull final Consumer<T> handler) {
+		events.register(type, handler);
 	}
 
 	@Override
 	public void on(@Nonnull final Consumer<LavalinkEvent> handler) {
-		vertx.eventBus().consumer(recvAddress, msg -> {
-			final var event = (LavalinkEvent) msg.body();
-			handler.accept(event);
-		});
+		events.register(handler);
 	}
 
 	class ControlMessage<V> {
@@ -0,0 +1,34 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.AudioLoadResult;
+import com.github.samophis.lavaclient.entities.AudioNode;
+import com.github.samophis.lavaclient.entities.BulkLoadResult;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Getter
+@RequiredArgsConstructor
+@Accessors(fluent = true)
+public class BulkLoadResultImpl implements BulkLoadResult {
+	private final String identifier;
+	private final AudioNode node;
+	private final AudioLoadResult result;
+	private final Throwable error;
+	private final long latencyNanos;
+}
@@ -0,0 +1,189 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.AudioNodeOptions;
+import com.github.samophis.lavaclient.entities.CircuitState;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/*
+Count-based circuit breaker over a node's REST calls. Errors, 5xx responses, timeouts and (optionally) slow calls are
+failures; once at least breakerMinimumCalls of the last breakerWindow calls have been seen and the failed share reaches
+breakerFailureRate, the circuit opens and requests are refused for breakerOpenDuration. After that up to
+breakerHalfOpenProbes requests are let through, all of which have to succeed to close the circuit again, while any
+failure opens it straight away. Every transition starts a new generation, and permits carry the generation they were
+granted in so that results are only counted against the state which let the request through. A window of 0 disables
+the breaker.
+ */
+
+class CircuitBreaker {
+	static final long REFUSED = -1;
+	private final Listener listener;
+	private final boolean[] window;
+	private final int minimumCalls;
+	private final double failureRate;
+	private final long slowCallNanos;
+	private final long openNanos;
+	private final int probes;
+	private CircuitState state = CircuitState.CLOSED;
+	private int next;
+	private int recorded;
+	private int failures;
+	private long openedAt;
+	private int probesInFlight;
+	private int probeSuccesses;
+	private long generation;
+
+	CircuitBreaker(@Nonnull final AudioNodeOptions options, @Nonnull final Listener listener) {
+		this.listener = listener;
+		window = new boolean[options.breakerWindow()];
+		minimumCalls = Math.max(1, Math.min(options.breakerMinimumCalls(), window.length));
+		failureRate = options.breakerFailureRate();
+		slowCallNanos = TimeUnit.MILLISECONDS.toNanos(options.breakerSlowCall());
+		openNanos = TimeUnit.MILLISECONDS.toNanos(options.breakerOpenDuration());
+		probes = Math.max(1, options.breakerHalfOpenProbes());
+	}
+
+	// the permit must be handed to exactly one succeeded/failed call once the request is done, REFUSED means no request.
+	@CheckReturnValue
+	synchronized long tryAcquire() {
+		if (window.length == 0) {
+			return generation;
+		}
+		switch (state) {
+			case CLOSED:
+				return generation;
+			case OPEN:
+				if (System.nanoTime() - openedAt < openNanos) {
+					return REFUSED;
+				}
+				probesInFlight = 0;
+				probeSuccesses = 0;
+				transition(CircuitState.HALF_OPEN, 0);
+				// this request is the first probe.
+				return probe();
+			case HALF_OPEN:
+				return probe();
+			default:
+				throw new IllegalStateException("unknown circuit state: " + state);
+		}
+	}
+
+	private long probe() {
+		if (probesInFlight >= probes) {
+			return REFUSED;
+		}
+		probesInFlight++;
+		return generation;
+	}
+
+	// whether tryAcquire would currently let a request through, without taking a probe slot.
+	@CheckReturnValue
+	synchronized boolean allowsRequests() {
+		if (window.length == 0) {
+			return true;
+		}
+		switch (state) {
+			case CLOSED:
+				return true;
+			case OPEN:
+				return System.nanoTime() - openedAt >= openNanos;
+			default:
+				return probesInFlight < probes;
+		}
+	}
+
+	void succeeded(final long permit, @Nonnegative final long nanos) {
+		record(permit, slowCallNanos > 0 && nanos > slowCallNanos);
+	}
+
+	void failed(final long permit) {
+		record(permit, true);
+	}
+
+	private synchronized void record(final long permit, final boolean failure) {
+		// calls let through in an earlier state (closed calls landing mid-probe, probes outliving the circuit
+		// reopening) tell us nothing about the current one.
+		if (window.length == 0 || permit != generation) {
+			return;
+		}
+		switch (state) {
+			case CLOSED:
+				if (recorded == window.length && window[next]) {
+					failures--;
+				}
+				window[next] = failure;
+				next = (next + 1) % window.length;
+				recorded = Math.min(recorded + 1, window.length);
+				if (failure) {
+					failures++;
+				}
+				final var rate = recorded == 0 ? 0 : failures / (double) recorded;
+				if (recorded >= minimumCalls && rate >= failureRate) {
+					open(rate);
+				}
+				break;
+			case HALF_OPEN:
+				probesInFlight = Math.max(0, probesInFlight - 1);
+				if (failure) {
+					open(1D / (probeSuccesses + 1));
+				} else if (++probeSuccesses >= probes) {
+					reset();
+					transition(CircuitState.CLOSED, 0);
+				}
+				break;
+			default:
+				// no permits are handed out while open, so a matching generation can't end up here.
+				break;
+		}
+	}
+
+	private void open(final double rate) {
+		openedAt = System.nanoTime();
+		reset();
+		transition(CircuitState.OPEN, rate);
+	}
+
+	private void reset() {
+		next = 0;
+		recorded = 0;
+		failures = 0;
+	}
+
+	// the rate is over the window when opening from closed and over the probes when leaving half-open.
+	private void transition(@Nonnull final CircuitState to, final double rate) {
+		final var from = state;
+		state = to;
+		generation++;
+		listener.changed(from, to, rate);
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	synchronized CircuitState state() {
+		return state;
+	}
+
+	@FunctionalInterface
+	interface Listener {
+		// called with the breaker's lock held, so it must not block.
+		void changed(@Nonnull final CircuitState from, @Nonnull final CircuitState to, final double failureRate);
+	}
+}
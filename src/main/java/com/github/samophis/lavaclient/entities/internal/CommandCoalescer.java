@@ -0,0 +1,135 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import io.vertx.core.Vertx;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/*
+Keeps only the latest volume, seek and pause per guild within a flush window. Any critical command acts as a barrier
+and flushes whatever its guild has pending first, so ordering relative to play/stop/destroy/voiceUpdate is kept.
+Must only be used from the owning node's context.
+ */
+
+public class CommandCoalescer {
+	private static final int SLOTS = 3;
+	private final Vertx vertx;
+	private final long window;
+	private final Consumer<OutboundCommand> downstream;
+	private final TLongObjectHashMap<OutboundCommand[]> pending = new TLongObjectHashMap<>();
+	private final AtomicLong collapsed = new AtomicLong();
+	private long timerId = -1;
+
+	CommandCoalescer(@Nonnull final Vertx vertx, @Nonnegative final long window,
+	                 @Nonnull final Consumer<OutboundCommand> downstream) {
+		this.vertx = vertx;
+		this.window = window;
+		this.downstream = downstream;
+	}
+
+	void offer(@Nonnull final OutboundCommand command) {
+		final var guildId = command.guildId();
+		if (command.type().critical()) {
+			flush(guildId);
+			downstream.accept(command);
+			return;
+		}
+		command.enqueuedAt = System.nanoTime();
+		var slots = pending.get(guildId);
+		if (slots == null) {
+			slots = new OutboundCommand[SLOTS];
+			pending.put(guildId, slots);
+		}
+		final var slot = slot(command.type());
+		final var superseded = slots[slot];
+		if (superseded != null) {
+			collapsed.incrementAndGet();
+			// whoever waits on the superseded command really waits for the one that replaced it.
+			command.future().whenComplete((_v, err) -> {
+				if (err == null) {
+					superseded.future().complete(null);
+				} else {
+					superseded.future().completeExceptionally(err);
+				}
+			});
+		}
+		slots[slot] = command;
+		if (timerId < 0) {
+			timerId = vertx.setTimer(window, _id -> {
+				timerId = -1;
+				flushAll();
+			});
+		}
+	}
+
+	void flushAll() {
+		pending.forEachValue(slots -> {
+			emit(slots);
+			return true;
+		});
+		pending.clear();
+	}
+
+	private void flush(final long guildId) {
+		final var slots = pending.remove(guildId);
+		if (slots != null) {
+			emit(slots);
+		}
+	}
+
+	// emits the surviving commands in the order they originally arrived in.
+	private void emit(@Nonnull final OutboundCommand[] slots) {
+		while (true) {
+			var next = -1;
+			for (var i = 0; i < SLOTS; i++) {
+				if (slots[i] != null && (next < 0 || slots[i].enqueuedAt < slots[next].enqueuedAt)) {
+					next = i;
+				}
+			}
+			if (next < 0) {
+				return;
+			}
+			downstream.accept(slots[next]);
+			slots[next] = null;
+		}
+	}
+
+	@CheckReturnValue
+	private static int slot(@Nonnull final OutboundCommand.Type type) {
+		switch (type) {
+			case PAUSE:
+				return 0;
+			case SEEK:
+				return 1;
+			case VOLUME:
+				return 2;
+			default:
+				throw new IllegalArgumentException("not a coalescable command: " + type);
+		}
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	long collapsed() {
+		return collapsed.get();
+	}
+}
@@ -0,0 +1,262 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.DecodeMetrics;
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import com.github.samophis.lavaclient.util.TrackDecoder;
+import me.escoffier.vertx.completablefuture.VertxCompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Gathers decode requests for decodeBatchWindow milliseconds (or until decodeBatchSize tracks are waiting) and sends
+them to the fastest node as a single /decodetracks request. Batches are decoded locally with TrackDecoder instead when
+no node is usable, when the request fails, or while the node's batch p95 is above remoteDecodeMaxLatency, with every
+PROBE_INTERVAL-th batch still going to a node so that a recovered node is noticed. Local decoding is done per request
+rather than per batch, so one malformed blob only fails the call it came with.
+ */
+
+class DecodeBatcher implements DecodeMetrics {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DecodeBatcher.class);
+	private static final int PROBE_INTERVAL = 16;
+	private final LavaClientImpl client;
+	private final boolean remote;
+	private final long window;
+	private final int batchSize;
+	private final long maxLatency;
+	private final LatencyTracker remoteBatch = new LatencyTracker();
+	private final LatencyTracker remotePerTrack = new LatencyTracker();
+	private final LatencyTracker localPerTrack = new LatencyTracker();
+	private final AtomicLong remoteBatches = new AtomicLong();
+	private final AtomicLong remoteTracks = new AtomicLong();
+	private final AtomicLong localTracks = new AtomicLong();
+	private final AtomicLong fallbacks = new AtomicLong();
+	private List<Pending> pending = new ArrayList<>();
+	private int pendingTracks;
+	private long timer = -1;
+	private int batchesSinceProbe;
+
+	DecodeBatcher(@Nonnull final LavaClientImpl client) {
+		this.client = client;
+		final var options = client.options();
+		remote = options.remoteDecode();
+		window = Math.max(1, options.decodeBatchWindow());
+		batchSize = Math.max(1, options.decodeBatchSize());
+		maxLatency = options.remoteDecodeMaxLatency();
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	CompletionStage<List<TrackInfo>> decode(@Nonnull final List<String> encoded) {
+		final var entry = new Pending(List.copyOf(encoded), new VertxCompletableFuture<>(client.vertx()));
+		if (encoded.isEmpty()) {
+			entry.future.complete(List.of());
+			return entry.future;
+		}
+		if (!remote) {
+			decodeLocally(List.of(entry));
+			return entry.future;
+		}
+		final List<Pending> full;
+		synchronized (this) {
+			pending.add(entry);
+			pendingTracks += entry.tracks.size();
+			if (pendingTracks >= batchSize) {
+				full = drain();
+			} else {
+				full = null;
+				if (timer == -1) {
+					timer = client.vertx().setTimer(window, _id -> flush());
+				}
+			}
+		}
+		if (full != null) {
+			send(full);
+		}
+		return entry.future;
+	}
+
+	private void flush() {
+		final List<Pending> batch;
+		synchronized (this) {
+			timer = -1;
+			batch = drain();
+		}
+		if (!batch.isEmpty()) {
+			send(batch);
+		}
+	}
+
+	@Nonnull
+	private List<Pending> drain() {
+		if (timer != -1) {
+			client.vertx().cancelTimer(timer);
+			timer = -1;
+		}
+		final var batch = pending;
+		pending = new ArrayList<>();
+		pendingTracks = 0;
+		return batch;
+	}
+
+	private void send(@Nonnull final List<Pending> batch) {
+		final var node = tooSlow() ? null : client.restRouter().fastest();
+		if (node == null) {
+			fallbacks.incrementAndGet();
+			decodeLocally(batch);
+			return;
+		}
+		final var tracks = new ArrayList<String>();
+		for (final var entry : batch) {
+			tracks.addAll(entry.tracks);
+		}
+		final var started = System.nanoTime();
+		node.decodeTracks(tracks).whenComplete((infos, err) -> {
+			if (err != null) {
+				LOGGER.debug("remote decode on audio node: {} failed, decoding locally", node.baseUrl(), err);
+				fallbacks.incrementAndGet();
+				decodeLocally(batch);
+				return;
+			}
+			final var nanos = System.nanoTime() - started;
+			remoteBatch.record(nanos);
+			remotePerTrack.record(nanos / tracks.size());
+			remoteBatches.incrementAndGet();
+			remoteTracks.addAndGet(tracks.size());
+			var from = 0;
+			for (final var entry : batch) {
+				entry.future.complete(infos.subList(from, from + entry.tracks.size()));
+				from += entry.tracks.size();
+			}
+		});
+	}
+
+	// true while nodes are over the latency budget, apart from the odd probe.
+	private synchronized boolean tooSlow() {
+		if (maxLatency == 0 || !remoteBatch.sampled() || remoteBatch.p95Millis() <= maxLatency) {
+			batchesSinceProbe = 0;
+			return false;
+		}
+		if (++batchesSinceProbe >= PROBE_INTERVAL) {
+			batchesSinceProbe = 0;
+			return false;
+		}
+		return true;
+	}
+
+	private void decodeLocally(@Nonnull final List<Pending> batch) {
+		final var pool = client.decodePool();
+		for (final var entry : batch) {
+			if (pool == null) {
+				try {
+					entry.future.complete(decodeEntry(entry));
+				} catch (final RuntimeException exc) {
+					entry.future.completeExceptionally(exc);
+				}
+				continue;
+			}
+			pool.execute(() -> decodeEntry(entry)).setHandler(result -> {
+				if (result.succeeded()) {
+					entry.future.complete(result.result());
+				} else {
+					entry.future.completeExceptionally(result.cause());
+				}
+			});
+		}
+	}
+
+	@Nonnull
+	private List<TrackInfo> decodeEntry(@Nonnull final Pending entry) {
+		final var started = System.nanoTime();
+		final var infos = new ArrayList<TrackInfo>(entry.tracks.size());
+		for (final var track : entry.tracks) {
+			infos.add(TrackDecoder.decode(track));
+		}
+		localPerTrack.record((System.nanoTime() - started) / infos.size());
+		localTracks.addAndGet(infos.size());
+		return Collections.unmodifiableList(infos);
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long remoteBatches() {
+		return remoteBatches.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long remoteTracks() {
+		return remoteTracks.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long localTracks() {
+		return localTracks.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long fallbacks() {
+		return fallbacks.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public double remoteBatchMillis() {
+		return remoteBatch.meanMillis();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public double remoteMillisPerTrack() {
+		return remotePerTrack.meanMillis();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public double localMillisPerTrack() {
+		return localPerTrack.meanMillis();
+	}
+
+	private static final class Pending {
+		private final List<String> tracks;
+		private final VertxCompletableFuture<List<TrackInfo>> future;
+
+		private Pending(@Nonnull final List<String> tracks,
+		                @Nonnull final VertxCompletableFuture<List<TrackInfo>> future) {
+			this.tracks = tracks;
+			this.future = future;
+		}
+	}
+}
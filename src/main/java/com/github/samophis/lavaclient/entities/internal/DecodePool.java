@@ -0,0 +1,92 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+Bounded worker pool for parsing and decoding track lists so that the event loops only ever do I/O. Lists are split
+into chunks which are decoded in parallel and stitched back together in order; results are delivered on the calling
+context, as with any executeBlocking call.
+ */
+
+class DecodePool {
+	private final WorkerExecutor executor;
+	private final int chunkSize;
+
+	DecodePool(@Nonnull final Vertx vertx, @Nonnegative final int size, @Nonnegative final int chunkSize) {
+		if (size <= 0 || chunkSize <= 0) {
+			throw new IllegalArgumentException("pool and chunk sizes must be larger than 0");
+		}
+		executor = vertx.createSharedWorkerExecutor("lavaclient-decode", size);
+		this.chunkSize = chunkSize;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	<T> Future<T> execute(@Nonnull final Supplier<T> task) {
+		final Future<T> result = Future.future();
+		executor.<T>executeBlocking(future -> future.complete(task.get()), false, result);
+		return result;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	@SuppressWarnings("rawtypes")
+	Future<List<AudioTrack>> decode(@Nonnull final List<String> encoded) {
+		if (encoded.isEmpty()) {
+			return Future.succeededFuture(List.of());
+		}
+		final var parts = new ArrayList<Future>((encoded.size() + chunkSize - 1) / chunkSize);
+		for (var from = 0; from < encoded.size(); from += chunkSize) {
+			final var chunk = encoded.subList(from, Math.min(from + chunkSize, encoded.size()));
+			parts.add(execute(() -> decodeChunk(chunk)));
+		}
+		return CompositeFuture.all(parts).map(all -> {
+			final var tracks = new ArrayList<AudioTrack>(encoded.size());
+			for (var i = 0; i < all.size(); i++) {
+				tracks.addAll(all.<List<AudioTrack>>resultAt(i));
+			}
+			return Collections.unmodifiableList(tracks);
+		});
+	}
+
+	void close() {
+		executor.close();
+	}
+
+	@Nonnull
+	private static List<AudioTrack> decodeChunk(@Nonnull final List<String> chunk) {
+		final var tracks = new ArrayList<AudioTrack>(chunk.size());
+		for (final var data : chunk) {
+			tracks.add(AudioTrackUtil.fromString(data));
+		}
+		return tracks;
+	}
+}
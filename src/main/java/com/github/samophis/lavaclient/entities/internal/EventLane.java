@@ -0,0 +1,46 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import io.vertx.core.AbstractVerticle;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+A lane is a tiny verticle whose only job is to own an event loop context. Tasks submitted to the same lane run in
+submission order, tasks on different lanes run in parallel.
+ */
+
+public class EventLane extends AbstractVerticle {
+	private final AtomicInteger depth = new AtomicInteger();
+
+	void execute(@Nonnull final Runnable task) {
+		depth.incrementAndGet();
+		context.runOnContext(_v -> {
+			depth.decrementAndGet();
+			task.run();
+		});
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	int depth() {
+		return depth.get();
+	}
+}
@@ -0,0 +1,98 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.events.EventType;
+import com.github.samophis.lavaclient.events.LavalinkEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+Copy-on-write listener arrays indexed by EventType#id. Registration may happen from any thread, dispatching happens
+on whichever context produced the event and never locks.
+ */
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class EventRegistry {
+	private static final Logger LOGGER = LoggerFactory.getLogger(EventRegistry.class);
+	private static final Consumer[] NONE = new Consumer[0];
+	private volatile Consumer[] catchAll = NONE;
+	private volatile Consumer[][] typed = new Consumer[0][];
+
+	public synchronized <T extends LavalinkEvent> void register(@Nonnull final EventType<T> type,
+	                                                            @Nonnull final Consumer<T> handler) {
+		var current = typed;
+		final var id = type.id();
+		if (id >= current.length) {
+			final var grown = Arrays.copyOf(current, id + 1);
+			for (var i = current.length; i < grown.length; i++) {
+				grown[i] = NONE;
+			}
+			current = grown;
+		} else {
+			current = current.clone();
+		}
+		current[id] = append(current[id], handler);
+		typed = current;
+	}
+
+	public synchronized void register(@Nonnull final Consumer<LavalinkEvent> handler) {
+		catchAll = append(catchAll, handler);
+	}
+
+	@CheckReturnValue
+	public boolean hasListeners(@Nonnull final EventType<?> type) {
+		return catchAll.length != 0 || listeners(type).length != 0;
+	}
+
+	public void dispatch(@Nonnull final LavalinkEvent event) {
+		for (final var handler : listeners(event.type())) {
+			dispatch(handler, event);
+		}
+		for (final var handler : catchAll) {
+			dispatch(handler, event);
+		}
+	}
+
+	private void dispatch(@Nonnull final Consumer handler, @Nonnull final LavalinkEvent event) {
+		try {
+			handler.accept(event);
+		} catch (final Exception exc) {
+			LOGGER.error("uncaught exception in event listener! {}", event.getClass().getSimpleName(), exc);
+		}
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	private Consumer[] listeners(@Nonnull final EventType<?> type) {
+		final var current = typed;
+		final var id = type.id();
+		return id < current.length ? current[id] : NONE;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	private static Consumer[] append(@Nonnull final Consumer[] handlers, @Nonnull final Consumer handler) {
+		final var copy = Arrays.copyOf(handlers, handlers.length + 1);
+		copy[handlers.length] = handler;
+		return copy;
+	}
+}
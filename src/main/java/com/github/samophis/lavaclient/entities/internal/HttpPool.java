@@ -0,0 +1,170 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.AudioNodeOptions;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+A node's own WebClient, built from its AudioNodeOptions, plus the bookkeeping behind its pool metrics. Vert.x 3.6 only
+reports pool state through a metrics SPI, so usage is worked out from the requests sent through here instead: anything
+beyond poolSize * requestsPerConnection is sitting in vert.x's wait queue, and the wait ends when an earlier request
+finishes and hands its connection over.
+ */
+
+@Accessors(fluent = true)
+class HttpPool {
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final WebClient client;
+	// the same pool underneath, for callers which need the raw request (e.g. to reset it).
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final HttpClient httpClient;
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	private final int capacity;
+	private final ArrayDeque<Long> waitingSince = new ArrayDeque<>();
+	private int active;
+	private long waitedCount;
+	private long waitedNanos;
+	private long maxWaitedNanos;
+
+	HttpPool(@Nonnull final Vertx vertx, @Nonnull final AudioNodeOptions options) {
+		final var poolSize = options.httpPoolSize();
+		final var perConnection = Math.max(1, options.httpPipeliningLimit());
+		final var webOptions = new WebClientOptions();
+		webOptions.setMaxPoolSize(poolSize)
+		          .setMaxWaitQueueSize(options.httpMaxWaitQueueSize())
+		          .setKeepAlive(options.httpKeepAlive())
+		          .setKeepAliveTimeout(options.httpKeepAliveTimeout())
+		          .setPipelining(perConnection > 1)
+		          .setPipeliningLimit(perConnection)
+		          .setConnectTimeout(options.httpConnectTimeout())
+		          .setIdleTimeout(options.httpIdleTimeout());
+		if (options.http2()) {
+			// lavalink doesn't do tls, so this is h2c via the upgrade request.
+			webOptions.setProtocolVersion(HttpVersion.HTTP_2)
+			          .setHttp2ClearTextUpgrade(true)
+			          .setHttp2MaxPoolSize(poolSize)
+			          .setHttp2MultiplexingLimit(perConnection);
+		}
+		httpClient = vertx.createHttpClient(webOptions);
+		client = WebClient.wrap(httpClient, webOptions);
+		capacity = poolSize * perConnection;
+	}
+
+	<T> void send(@Nonnull final HttpRequest<T> request,
+	              @Nonnull final Handler<AsyncResult<HttpResponse<T>>> handler) {
+		acquire();
+		request.send(result -> {
+			release();
+			handler.handle(result);
+		});
+	}
+
+	<T> void send(@Nonnull final HttpRequest<T> request, @Nonnull final Buffer body,
+	              @Nonnull final Handler<AsyncResult<HttpResponse<T>>> handler) {
+		acquire();
+		request.sendBuffer(body, result -> {
+			release();
+			handler.handle(result);
+		});
+	}
+
+	// for requests made on httpClient directly. the returned callback frees the slot and can safely be run again.
+	@CheckReturnValue
+	@Nonnull
+	Runnable acquireSlot() {
+		acquire();
+		final var released = new AtomicBoolean();
+		return () -> {
+			if (released.compareAndSet(false, true)) {
+				release();
+			}
+		};
+	}
+
+	private synchronized void acquire() {
+		if (active >= capacity) {
+			waitingSince.add(System.nanoTime());
+		}
+		active++;
+	}
+
+	private synchronized void release() {
+		active--;
+		final var since = waitingSince.poll();
+		if (since == null) {
+			return;
+		}
+		final var nanos = System.nanoTime() - since;
+		waitedCount++;
+		waitedNanos += nanos;
+		if (nanos > maxWaitedNanos) {
+			maxWaitedNanos = nanos;
+		}
+	}
+
+	void close() {
+		client.close();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized int active() {
+		return active;
+	}
+
+	// fraction of the pool's request slots in use, 1 once anything is waiting.
+	@CheckReturnValue
+	@Nonnegative
+	synchronized double utilisation() {
+		return capacity == 0 ? 0 : Math.min(active, capacity) / (double) capacity;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized int waiting() {
+		return waitingSince.size();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized long averageWaitNanos() {
+		return waitedCount == 0 ? 0 : waitedNanos / waitedCount;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized long maxWaitNanos() {
+		return maxWaitedNanos;
+	}
+}
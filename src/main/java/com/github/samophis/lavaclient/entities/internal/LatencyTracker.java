@@ -0,0 +1,62 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+
+/*
+Exponentially weighted mean and variance of request latency. The p95 is approximated as mean + 1.645 standard
+deviations, which is rough but cheap and reacts to a node getting slower just as quickly as the mean does.
+ */
+
+class LatencyTracker {
+	private static final double ALPHA = 0.2;
+	private static final double Z_95 = 1.645;
+	private double mean;
+	private double variance;
+	private boolean sampled;
+
+	synchronized void record(@Nonnegative final long nanos) {
+		final var millis = nanos / 1_000_000D;
+		if (!sampled) {
+			mean = millis;
+			sampled = true;
+			return;
+		}
+		final var diff = millis - mean;
+		final var increment = ALPHA * diff;
+		mean += increment;
+		variance = (1 - ALPHA) * (variance + diff * increment);
+	}
+
+	@CheckReturnValue
+	synchronized boolean sampled() {
+		return sampled;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized double meanMillis() {
+		return mean;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized double p95Millis() {
+		return mean + Z_95 * Math.sqrt(variance);
+	}
+}
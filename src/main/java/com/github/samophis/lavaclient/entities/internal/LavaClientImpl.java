@@ -15,27 +15,47 @@
  */
 package com.github.samophis.lavaclient.entities.internal;
 
+import com.github.samophis.lavaclient.entities.AudioLoadResult;
 import com.github.samophis.lavaclient.entities.AudioNode;
 import com.github.samophis.lavaclient.entities.AudioNodeOptions;
+import com.github.samophis.lavaclient.entities.BulkLoadResult;
+import com.github.samophis.lavaclient.entities.DecodeMetrics;
 import com.github.samophis.lavaclient.entities.LavaClient;
+import com.github.samophis.lavaclient.entities.LavaClientOptions;
 import com.github.samophis.lavaclient.entities.LavaPlayer;
-import com.github.samophis.lavaclient.events.*;
-import com.github.samophis.lavaclient.util.JsonPojoCodec;
+import com.github.samophis.lavaclient.entities.RestMetrics;
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.util.LoadResultCache;
+import com.github.samophis.lavaclient.util.LocalOnlyCodec;
+import com.github.samophis.lavaclient.util.TrackStore;
 import gnu.trove.map.hash.TLongObjectHashMap;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
-import io.vertx.core.json.JsonObject;
-import io.vertx.ext.web.client.WebClient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import me.escoffier.vertx.completablefuture.VertxCompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Getter
 @Setter
@@ -47,31 +67,61 @@ public class LavaClientImpl implements LavaClient {
 	private final TLongObjectHashMap<LavaPlayer> players;
 	private final long userId;
 	private final int numShards;
-	private final WebClient client;
+	private final LavaClientOptions options;
+	private final StartupTimingsImpl startupTimings;
+	private final LoadResultCache loadResultCache;
+	private final TrackStore trackStore;
+	@Getter(AccessLevel.PACKAGE) private final DecodePool decodePool;
+	@Getter(AccessLevel.PACKAGE) private final RestRouter restRouter;
+	@Getter(AccessLevel.NONE) private final DecodeBatcher decodeBatcher;
+	@Getter(AccessLevel.NONE) private final AtomicBoolean startupRecorded = new AtomicBoolean();
 
 	public LavaClientImpl(final Vertx vertx, final List<AudioNode> nodes,
-	                      final TLongObjectHashMap<LavaPlayer> players, final long userId, final int numShards) {
+	                      final TLongObjectHashMap<LavaPlayer> players, final long userId, final int numShards,
+	                      final LavaClientOptions options, final StartupTimingsImpl startupTimings) {
 		this.vertx = vertx;
 		this.nodes = nodes;
 		this.players = players;
 		this.userId = userId;
 		this.numShards = numShards;
-		client = WebClient.create(vertx);
-		register(JsonObject.class);
-		register(TrackStartEvent.class);
-		register(TrackEndEvent.class);
-		register(TrackExceptionEvent.class);
-		register(TrackStuckEvent.class);
-		register(PlayerPauseEvent.class);
-		register(PlayerResumeEvent.class);
-		register(PlayerUpdateEvent.class);
-		register(StatsUpdateEvent.class);
-		register(WebSocketClosedEvent.class);
-		register(AudioNodeImpl.ControlMessage.class);
+		this.options = options;
+		this.startupTimings = startupTimings;
+		loadResultCache = options.loadCacheSize() > 0
+				? new LoadResultCache(options.loadCacheSize(), options.loadCacheSearchTtl(), options.loadCacheUrlTtl(),
+						options.loadCacheNegativeTtl())
+				: null;
+		trackStore = options.trackStorePath() != null
+				? startupTimings.time("track store", () -> openTrackStore(options))
+				: null;
+		decodePool = options.decodePoolSize() > 0
+				? new DecodePool(vertx, options.decodePoolSize(), options.decodeChunkSize())
+				: null;
+		restRouter = new RestRouter(this);
+		decodeBatcher = new DecodeBatcher(this);
+		final var codecsStart = System.nanoTime();
+		vertx.eventBus().registerDefaultCodec(AudioNodeImpl.ControlMessage.class,
+				new LocalOnlyCodec<>(AudioNodeImpl.ControlMessage.class));
+		startupTimings.record("codecs", System.nanoTime() - codecsStart);
+		if (options.preloadTrackManager()) {
+			vertx.<Void>executeBlocking(future -> {
+				final var preloadStart = System.nanoTime();
+				AudioTrackUtil.preload();
+				startupTimings.record("track manager", System.nanoTime() - preloadStart);
+				future.complete();
+			}, false, null);
+		}
 	}
 
-	private <T> void register(@Nonnull final Class<T> cls) {
-		vertx.eventBus().registerDefaultCodec(cls, new JsonPojoCodec<>(cls));
+	@Nullable
+	private static TrackStore openTrackStore(@Nonnull final LavaClientOptions options) {
+		final var path = Path.of(options.trackStorePath());
+		try {
+			return TrackStore.open(path, options.trackStoreSize(), options.trackStoreSearchTtl(),
+					options.trackStoreUrlTtl());
+		} catch (final IOException exc) {
+			LOGGER.warn("couldn't open track store: {}, loads won't be persisted!", path, exc);
+			return null;
+		}
 	}
 
 	@Nonnull
@@ -167,6 +217,181 @@ public class LavaClientImpl implements LavaClient {
 		vertx.deployVerticle((AudioNodeImpl) node, _result -> node.openConnection());
 	}
 
+	@Nonnull
+	@Override
+	public CompletionStage<Void> addNodes(@Nonnull final List<AudioNode> nodes, @Nonnegative final int quorum) {
+		if (quorum < 1 || quorum > nodes.size()) {
+			throw new IllegalArgumentException("quorum must be between 1 and the number of nodes!");
+		}
+		final var future = new VertxCompletableFuture<Void>(vertx);
+		// only the first batch is part of startup, later ones would overwrite its phases.
+		final var startup = startupRecorded.compareAndSet(false, true);
+		final var started = System.nanoTime();
+		final var connected = new AtomicInteger();
+		final var failed = new AtomicInteger();
+		final var remaining = new AtomicInteger(nodes.size());
+		// once this many have failed, quorum can't be reached anymore.
+		final var tolerated = nodes.size() - quorum;
+		for (final var node : nodes) {
+			final var impl = (AudioNodeImpl) node;
+			final var deployStart = System.nanoTime();
+			this.nodes.add(node);
+			vertx.deployVerticle(impl, deployed -> {
+				if (startup) {
+					startupTimings.record("deploy " + node.baseUrl(), System.nanoTime() - deployStart);
+				}
+				final Future<Void> ready = Future.future();
+				if (deployed.succeeded()) {
+					final var connectStart = System.nanoTime();
+					impl.connect().setHandler(result -> {
+						if (startup) {
+							startupTimings.record("connect " + node.baseUrl(), System.nanoTime() - connectStart);
+						}
+						ready.handle(result);
+					});
+				} else {
+					ready.fail(deployed.cause());
+				}
+				ready.setHandler(result -> {
+					if (result.succeeded()) {
+						if (connected.incrementAndGet() == quorum) {
+							if (startup) {
+								startupTimings.record("quorum", System.nanoTime() - started);
+							}
+							future.complete(null);
+						}
+					} else {
+						LOGGER.warn("failed to start audio node: {}", node.baseUrl(), result.cause());
+						if (failed.incrementAndGet() == tolerated + 1) {
+							future.completeExceptionally(new IllegalStateException(String.format(
+									"only %d of %d nodes could connect, needed %d!", nodes.size() - failed.get(),
+									nodes.size(), quorum), result.cause()));
+						}
+					}
+					if (startup && remaining.decrementAndGet() == 0) {
+						startupTimings.record("all nodes", System.nanoTime() - started);
+						LOGGER.info("startup timings: {}", startupTimings);
+					}
+				});
+			});
+		}
+		return future;
+	}
+
+	@Nonnull
+	@Override
+	public CompletionStage<AudioLoadResult> loadTracksAsync(@Nonnull final String identifier) {
+		final var loaded = loadResultCache == null
+				? loadThroughStore(identifier, restRouter::load)
+				: loadResultCache.get(identifier, id -> loadThroughStore(id, restRouter::load));
+		return loaded.thenCompose(result -> decodedCopy((AudioLoadResultImpl) result));
+	}
+
+	// the track store sits between the in-memory cache and the network and keeps whatever the network returns. results
+	// come back undecoded, so the cache only ever holds blobs and each caller decodes once through decodedCopy.
+	@Nonnull
+	CompletionStage<AudioLoadResult> loadThroughStore(
+			@Nonnull final String identifier,
+			@Nonnull final Function<String, CompletionStage<AudioLoadResult>> network) {
+		if (trackStore == null) {
+			return network.apply(identifier);
+		}
+		// a compaction can take a while and holds the store's lock, so neither lookups nor appends happen on the
+		// event loop.
+		final var lookup = Future.<AudioLoadResult>future();
+		vertx.<AudioLoadResult>executeBlocking(future -> future.complete(trackStore.get(identifier)), false, lookup);
+		return VertxCompletableFuture.from(vertx, lookup).thenCompose(stored -> {
+			if (stored != null) {
+				return CompletableFuture.completedFuture(stored);
+			}
+			return network.apply(identifier).thenApply(result -> {
+				vertx.<Void>executeBlocking(future -> {
+					trackStore.put(identifier, result);
+					future.complete();
+				}, false, null);
+				return result;
+			});
+		});
+	}
+
+	@Nonnull
+	@Override
+	public RestMetrics restMetrics() {
+		return restRouter;
+	}
+
+	@Nonnull
+	@Override
+	public CompletionStage<List<TrackInfo>> decodeTracksAsync(@Nonnull final List<String> encodedTracks) {
+		return decodeBatcher.decode(encodedTracks);
+	}
+
+	@Nonnull
+	@Override
+	public DecodeMetrics decodeMetrics() {
+		return decodeBatcher;
+	}
+
+	// loaded and cached results are shared and undecoded, so every caller gets its own decoded tracks.
+	@Nonnull
+	CompletionStage<AudioLoadResult> decodedCopy(@Nonnull final AudioLoadResultImpl result) {
+		if (decodePool == null) {
+			return CompletableFuture.completedFuture(result.copy());
+		}
+		return VertxCompletableFuture.from(vertx,
+				decodePool.decode(result.encodedTracks()).<AudioLoadResult>map(result::withTracks));
+	}
+
+	@Nonnull
+	@Override
+	public CompletionStage<List<BulkLoadResult>> loadTracksBulk(@Nonnull final Collection<String> identifiers,
+	                                                            @Nullable final Consumer<BulkLoadResult> onResult) {
+		final var future = new VertxCompletableFuture<List<BulkLoadResult>>(vertx);
+		if (identifiers.isEmpty()) {
+			future.complete(List.of());
+			return future;
+		}
+		final var bulk = new BulkLoad(future, identifiers.size(), onResult);
+		var slot = 0;
+		for (final var identifier : identifiers) {
+			final var index = slot++;
+			final var submitted = System.nanoTime();
+			final var node = leastBusyNode();
+			if (node == null) {
+				bulk.complete(index, new BulkLoadResultImpl(identifier, null, null,
+						new IllegalStateException("no available nodes could be found!"), 0));
+				continue;
+			}
+			// the cache and store lookups are asynchronous, so without this every identifier would see the same loads.
+			final var reservation = node.loads().reserve();
+			node.loadTracksAsync(identifier).whenComplete((result, err) -> {
+				reservation.run();
+				bulk.complete(index, new BulkLoadResultImpl(identifier, node, result, err,
+						System.nanoTime() - submitted));
+			});
+		}
+		return future;
+	}
+
+	@Nullable
+	private AudioNodeImpl leastBusyNode() {
+		var best = (AudioNodeImpl) null;
+		var bestLoad = Integer.MAX_VALUE;
+		for (final var node : nodes) {
+			final var impl = (AudioNodeImpl) node;
+			// same as the router, a node with an open circuit would only fail the load.
+			if (!node.available() || !impl.breaker().allowsRequests()) {
+				continue;
+			}
+			final var load = impl.loads().load();
+			if (load < bestLoad) {
+				bestLoad = load;
+				best = impl;
+			}
+		}
+		return best;
+	}
+
 	@Override
 	public void removeNode(@Nonnull final String baseUrl) {
 		final var node = (AudioNodeImpl) node(baseUrl);
@@ -184,7 +409,12 @@ public class LavaClientImpl implements LavaClient {
 			vertx.undeploy(impl.deploymentID());
 			nodes.remove(node);
 		});
-		client.close();
+		if (decodePool != null) {
+			decodePool.close();
+		}
+		if (trackStore != null) {
+			trackStore.close();
+		}
 		vertx.close();
 	}
 
@@ -203,6 +433,39 @@ public class LavaClientImpl implements LavaClient {
 		if (port <= 0) {
 			throw new IllegalArgumentException("port is smaller or equal to 0");
 		}
-		return new AudioNodeImpl(this, host, options.relativePath(), password, port);
+		return new AudioNodeImpl(this, host, options.relativePath(), password, port, options);
+	}
+
+	private static final class BulkLoad {
+		private final VertxCompletableFuture<List<BulkLoadResult>> future;
+		private final AtomicReferenceArray<BulkLoadResult> results;
+		private final AtomicInteger remaining;
+		private final Consumer<BulkLoadResult> onResult;
+
+		private BulkLoad(@Nonnull final VertxCompletableFuture<List<BulkLoadResult>> future, final int count,
+		                 @Nullable final Consumer<BulkLoadResult> onResult) {
+			this.future = future;
+			this.onResult = onResult;
+			results = new AtomicReferenceArray<>(count);
+			remaining = new AtomicInteger(count);
+		}
+
+		private void complete(final int index, @Nonnull final BulkLoadResult result) {
+			results.set(index, result);
+			if (onResult != null) {
+				try {
+					onResult.accept(result);
+				} catch (final Exception exc) {
+					LOGGER.error("uncaught exception in bulk load callback! {}", result.identifier(), exc);
+				}
+			}
+			if (remaining.decrementAndGet() == 0) {
+				final var ordered = new ArrayList<BulkLoadResult>(results.length());
+				for (var i = 0; i < results.length(); i++) {
+					ordered.add(results.get(i));
+				}
+				future.complete(Collections.unmodifiableList(ordered));
+			}
+		}
 	}
 }
@@ -16,27 +16,24 @@
 package com.github.samophis.lavaclient.entities.internal;
 
 import com.github.samophis.lavaclient.entities.*;
-import com.github.samophis.lavaclient.exceptions.HttpTrackException;
 import com.github.samophis.lavaclient.util.AudioTrackUtil;
 import com.github.samophis.lavaclient.util.EntityBuilder;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
-import io.vertx.core.http.HttpMethod;
-import io.vertx.core.json.JsonObject;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
-import me.escoffier.vertx.completablefuture.VertxCompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
-import java.util.stream.Collectors;
+import java.util.concurrent.Flow;
 
 @Getter
 @Setter
@@ -46,12 +43,16 @@ public class LavaPlayerImpl implements LavaPlayer {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LavaPlayerImpl.class);
 	private final LavaClientImpl client;
 	private final long guildId;
-	private long timestamp;
-	private long position;
+	private volatile long timestamp;
+	private volatile long position;
 	private int volume;
-	private boolean paused;
+	private volatile boolean paused;
+	// seqlock guarding position/receivedAt so that estimatedPosition() never pairs an old position with a new time.
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private volatile int stateVersion;
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private volatile long receivedAt;
 	private PlayerState state;
-	private AudioTrack playingTrack;
+	// set as soon as a play is accepted and put back if it fails, so the guards below see it straight away.
+	@Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private volatile Playing playing;
 	private AudioNodeImpl connectedNode;
 	private String guildIdString;
 	private String lastSessionId;
@@ -59,115 +60,213 @@ public class LavaPlayerImpl implements LavaPlayer {
 	private String lastEndpoint;
 
 	@Nonnull
-	@SuppressWarnings("deprecation") // we're not using vert.x 4, no need to worry on 3.6.2
 	@Override
 	public CompletionStage<AudioLoadResult> loadTracksAsync(@Nonnull final String identifier) {
-		final var future = new VertxCompletableFuture<AudioLoadResult>(client.vertx());
-		final var path = String.format("/loadtracks?identifier=%s", URLEncoder.encode(identifier,
-				StandardCharsets.UTF_8));
-		final var request = client.client().request(HttpMethod.GET, connectedNode.port(), connectedNode.baseUrl(), path);
-		if (!connectedNode.password().isEmpty()) {
-			request.putHeader("Authorization", connectedNode.password());
-		}
-		request.send(result -> {
-			if (result.succeeded()) {
-				final var response = result.result();
-				if (response.statusCode() != 200) {
-					LOGGER.warn("status code: {}, audio failed to load!", response.statusCode());
-					future.completeExceptionally(new HttpTrackException("failed to load audio!", response.statusCode(),
-							response.statusMessage()));
-					return;
-				}
-				final var json = response.bodyAsJsonObject();
-				final var type = LoadType.from(json.getString("loadType"));
-				final var playlistInfo = json.getJsonObject("playlistInfo");
-				final var isPlaylist = !playlistInfo.isEmpty();
-				final var rawTracks = json.getJsonArray("tracks");
-				final var tracks = rawTracks
-						.stream()
-						.map(obj -> AudioTrackUtil.fromString(((JsonObject) obj).getString("track")))
-						.collect(Collectors.toList());
-				var playlistName = (String) null;
-				var selectedTrack = (Integer) null;
-
-				if (isPlaylist) {
-					playlistName = playlistInfo.getString("name");
-					selectedTrack = playlistInfo.getInteger("selectedTrack");
-				}
-				future.complete(new AudioLoadResultImpl(tracks, type, playlistName, selectedTrack, isPlaylist));
-			} else {
-				LOGGER.error("error executing http request!", result.cause());
-				future.completeExceptionally(result.cause());
+		// an open circuit on our own node reroutes through the client even with routing turned off.
+		return client.options().restRouting() || !connectedNode.breaker().allowsRequests()
+				? client.loadTracksAsync(identifier)
+				: connectedNode.loadTracksAsync(identifier);
+	}
+
+	@Nonnull
+	@Override
+	public Flow.Publisher<List<AudioTrack>> streamTracks(@Nonnull final String identifier,
+	                                                     @Nonnegative final int chunkSize) {
+		return connectedNode.streamTracks(identifier, chunkSize);
+	}
+
+	@Nonnegative
+	@Override
+	public long estimatedPosition() {
+		while (true) {
+			final var version = stateVersion;
+			if ((version & 1) != 0) {
+				Thread.onSpinWait();
+				continue;
 			}
-		});
-		return future;
+			final var lastPosition = position;
+			final var lastReceived = receivedAt;
+			final var isPaused = paused;
+			if (version != stateVersion) {
+				continue;
+			}
+			if (lastReceived == 0 || isPaused) {
+				return lastPosition;
+			}
+			final var estimate = lastPosition + (System.nanoTime() - lastReceived) / 1_000_000L;
+			final var current = playing;
+			// playback stops at endTime, which is Long.MAX_VALUE for streams played straight from their AudioTrack.
+			return current == null ? estimate : Math.min(estimate, current.endTime);
+		}
+	}
+
+	// writers synchronize among themselves, readers stay lock-free.
+	synchronized void updateState(@Nonnegative final long position, @Nonnegative final long timestamp) {
+		stateVersion++;
+		this.position = position;
+		this.timestamp = timestamp;
+		receivedAt = System.nanoTime();
+		stateVersion++;
+	}
+
+	// a new track, a seek or the track ending voids the last reported position until the node reports again.
+	private synchronized void resetPosition(@Nonnegative final long position, final boolean running) {
+		stateVersion++;
+		this.position = position;
+		receivedAt = running ? System.nanoTime() : 0;
+		stateVersion++;
+	}
+
+	// a replaced track's end arrives after its successor has started, so that one mustn't clear anything.
+	void trackEnded(@Nonnull final AudioTrackEndReason reason) {
+		if (reason == AudioTrackEndReason.REPLACED) {
+			return;
+		}
+		clearTrack();
+	}
+
+	void clearTrack() {
+		playing = null;
+		resetPosition(0, false);
+	}
+
+	// only known when the caller handed us the AudioTrack, decoding the blob here would drag lavaplayer in.
+	@Nullable
+	@Override
+	public AudioTrack playingTrack() {
+		final var current = playing;
+		return current == null ? null : current.track;
+	}
+
+	// only undoes the change if nothing has changed it again since.
+	private synchronized void revertPaused(final boolean paused) {
+		if (this.paused == paused) {
+			updatePaused(!paused);
+		}
+	}
+
+	private synchronized void updatePaused(final boolean paused) {
+		final var current = estimatedPosition();
+		stateVersion++;
+		this.paused = paused;
+		position = current;
+		receivedAt = System.nanoTime();
+		stateVersion++;
 	}
 
 	@Override
-	public void volume(@Nonnegative final int volume) {
+	public CompletionStage<Void> volume(@Nonnegative final int volume) {
 		if (volume < 0 || volume > 1000) {
 			LOGGER.warn("out of bounds volume: {}, guild id: {}", volume, guildIdAsString());
 			throw new IllegalArgumentException("volume out of bounds!");
 		}
-		final var volumeUpdate = EntityBuilder.createVolumePayload(guildIdAsString(), volume);
-		send(volumeUpdate);
+		final var volumeUpdate = EntityBuilder.encodeVolumePayload(guildIdAsString(), volume);
+		return send(OutboundCommand.Type.VOLUME, volumeUpdate);
 	}
 
 	@Override
-	public void play(@Nonnull final String trackData, @Nonnegative final long startTime,
-	                 @Nonnegative final long endTime, final boolean noReplace) {
+	public CompletionStage<Void> play(@Nonnull final String trackData, @Nonnegative final long startTime,
+	                                  @Nonnegative final long endTime, final boolean noReplace) {
+		return play(trackData, null, startTime, endTime, noReplace);
+	}
+
+	// keeps the caller's track for playingTrack(), the blob comes from the encode memo.
+	@Override
+	public CompletionStage<Void> play(@Nonnull final AudioTrack track, @Nonnegative final long startTime,
+	                                  @Nonnegative final long endTime, final boolean noReplace) {
+		return play(AudioTrackUtil.fromTrack(track), track, startTime, endTime, noReplace);
+	}
+
+	@Nonnull
+	private CompletionStage<Void> play(@Nonnull final String trackData, @Nullable final AudioTrack track,
+	                                   @Nonnegative final long startTime, @Nonnegative final long endTime,
+	                                   final boolean noReplace) {
 		if (startTime < 0 || startTime >= endTime) {
 			LOGGER.warn("startTime out of bounds: {}, guild id: {}", startTime, guildIdAsString());
 			throw new IllegalArgumentException("startTime out of bounds!");
 		}
-		final var play = EntityBuilder.createPlayPayload(guildIdAsString(), trackData, startTime, endTime, noReplace);
-		send(play);
+		final var play = EntityBuilder.encodePlayPayload(guildIdAsString(), trackData, startTime, endTime, noReplace);
+		final var previous = playing;
+		// with noReplace lavalink ignores the play while something is on, so nothing changes.
+		if (noReplace && previous != null) {
+			return send(OutboundCommand.Type.PLAY, play);
+		}
+		final var next = new Playing(track, endTime);
+		playing = next;
+		resetPosition(startTime, !paused);
+		final var result = send(OutboundCommand.Type.PLAY, play);
+		result.whenComplete((_v, err) -> {
+			if (err != null) {
+				revertPlaying(next, previous);
+			}
+		});
+		return result;
+	}
+
+	private synchronized void revertPlaying(@Nonnull final Playing next, @Nullable final Playing previous) {
+		if (playing == next) {
+			playing = previous;
+		}
 	}
 
 	@Override
-	public void stop() {
-		if (playingTrack == null) {
+	public CompletionStage<Void> stop() {
+		if (playing == null) {
 			LOGGER.warn("no track playing during an attempt to stop! guild id: {}", guildIdAsString());
 			throw new IllegalStateException("can't stop a track which doesn't exist!");
 		}
-		final var stop = EntityBuilder.createStopPayload(guildIdAsString());
-		send(stop);
+		final var stop = EntityBuilder.encodeStopPayload(guildIdAsString());
+		return send(OutboundCommand.Type.STOP, stop);
 	}
 
 	@Override
-	public void pause() {
+	public CompletionStage<Void> pause() {
 		if (paused) {
 			LOGGER.warn("already paused! guild id: {}", guildIdAsString());
 			throw new IllegalStateException("already paused!");
 		}
-		final var pause = EntityBuilder.createPausePayload(guildIdAsString(), true);
-		send(pause);
+		final var pause = EntityBuilder.encodePausePayload(guildIdAsString(), true);
+		updatePaused(true);
+		final var result = send(OutboundCommand.Type.PAUSE, pause);
+		result.whenComplete((_v, err) -> {
+			if (err != null) {
+				revertPaused(true);
+			}
+		});
+		return result;
 	}
 
 	@Override
-	public void resume() {
+	public CompletionStage<Void> resume() {
 		if (!paused) {
 			LOGGER.warn("already resumed! guild id: {}", guildIdAsString());
 			throw new IllegalStateException("already resumed!");
 		}
-		final var resume = EntityBuilder.createPausePayload(guildIdAsString(), false);
-		send(resume);
+		final var resume = EntityBuilder.encodePausePayload(guildIdAsString(), false);
+		updatePaused(false);
+		final var result = send(OutboundCommand.Type.PAUSE, resume);
+		result.whenComplete((_v, err) -> {
+			if (err != null) {
+				revertPaused(false);
+			}
+		});
+		return result;
 	}
 
 	@Override
-	public void destroy() {
+	public CompletionStage<Void> destroy() {
 		if (state == PlayerState.DESTROYED) {
 			LOGGER.warn("already destroyed! guild id: {}", guildIdAsString());
 			throw new IllegalStateException("already destroyed!");
 		}
 		state = PlayerState.DESTROYED;
-		final var destroyed = EntityBuilder.createDestroyPayload(guildIdAsString());
-		send(destroyed);
+		final var destroyed = EntityBuilder.encodeDestroyPayload(guildIdAsString());
+		return send(OutboundCommand.Type.DESTROY, destroyed);
 	}
 
 	@Override
-	public void seek(@Nonnegative final long position) {
-		if (playingTrack == null) {
+	public CompletionStage<Void> seek(@Nonnegative final long position) {
+		if (playing == null) {
 			LOGGER.warn("no track is playing, seek requested! guild id: {}", guildIdAsString());
 			throw new IllegalArgumentException("can't seek when no track is playing!");
 		}
@@ -175,8 +274,8 @@ public class LavaPlayerImpl implements LavaPlayer {
 			LOGGER.warn("position is negative, not allowed! guild id: {}", guildIdAsString());
 			throw new IllegalArgumentException("negative position!");
 		}
-		final var seek = EntityBuilder.createSeekPayload(guildIdAsString(), position);
-		send(seek);
+		final var seek = EntityBuilder.encodeSeekPayload(guildIdAsString(), position);
+		return send(OutboundCommand.Type.SEEK, seek).thenRun(() -> resetPosition(position, !paused));
 	}
 
 	@Override
@@ -205,8 +304,8 @@ public class LavaPlayerImpl implements LavaPlayer {
 	}
 
 	@Override
-	public void initialize(@Nonnull final String sessionId, @Nonnull final String voiceToken,
-	                       @Nonnull final String endpoint) {
+	public CompletionStage<Void> initialize(@Nonnull final String sessionId, @Nonnull final String voiceToken,
+	                                        @Nonnull final String endpoint) {
 		if (state == PlayerState.INITIALIZED) {
 			LOGGER.warn("player already initialized! guild id: {}", guildIdAsString());
 			throw new IllegalStateException("player already initialized!");
@@ -215,8 +314,8 @@ public class LavaPlayerImpl implements LavaPlayer {
 		lastVoiceToken = voiceToken;
 		lastEndpoint = endpoint;
 		state = PlayerState.INITIALIZED;
-		final var init = EntityBuilder.createVoiceUpdatePayload(guildIdAsString(), sessionId, voiceToken, endpoint);
-		send(init);
+		final var init = EntityBuilder.encodeVoiceUpdatePayload(guildIdAsString(), sessionId, voiceToken, endpoint);
+		return send(OutboundCommand.Type.VOICE_UPDATE, init);
 	}
 
 	private String guildIdAsString() {
@@ -226,7 +325,18 @@ public class LavaPlayerImpl implements LavaPlayer {
 		return guildIdString;
 	}
 
-	private void send(@Nonnull final JsonObject payload) {
-		client.vertx().eventBus().publish(connectedNode.sendAddress(), payload);
+	@Nonnull
+	private CompletionStage<Void> send(@Nonnull final OutboundCommand.Type type, @Nonnull final String payload) {
+		return connectedNode.send(new OutboundCommand(type, guildId, payload));
+	}
+
+	private static final class Playing {
+		private final AudioTrack track;
+		private final long endTime;
+
+		private Playing(@Nullable final AudioTrack track, @Nonnegative final long endTime) {
+			this.track = track;
+			this.endTime = endTime;
+		}
 	}
 }
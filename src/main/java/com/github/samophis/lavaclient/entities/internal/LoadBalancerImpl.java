@@ -17,41 +17,91 @@ package com.github.samophis.lavaclient.entities.internal;
 
 import com.github.samophis.lavaclient.entities.AudioNode;
 import com.github.samophis.lavaclient.entities.LoadBalancer;
+import com.github.samophis.lavaclient.entities.Statistics;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import lombok.experimental.Accessors;
 
 import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
-@Getter
-@Setter
 @RequiredArgsConstructor
 @Accessors(fluent = true)
 public class LoadBalancerImpl implements LoadBalancer {
-	private final AudioNode node;
-	private int playerPenalty, cpuPenalty, nullFramePenalty, deficitFramePenalty;
+	@Getter private final AudioNode node;
+	private volatile Penalties penalties = new Penalties(null);
 
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int playerPenalty() {
+		return penalties.playerPenalty;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int cpuPenalty() {
+		return penalties.cpuPenalty;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int deficitFramePenalty() {
+		return penalties.deficitFramePenalty;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int nullFramePenalty() {
+		return penalties.nullFramePenalty;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int totalPenalty() {
+		final var current = penalties;
+		return current.source == null || !node.available() ? Integer.MAX_VALUE - 1 : current.total;
+	}
+
+	// penalties are only recomputed when the node publishes a new statistics snapshot.
 	@CheckReturnValue
 	@Nonnull
 	@Override
 	public LoadBalancer updatePenalties() {
 		final var stats = node.statistics();
-		if (stats == null) {
-			return this;
-		}
-		playerPenalty = stats.playingPlayers();
-		cpuPenalty = (int) Math.pow(1.05d, 100 * stats.systemLoad()) * 10 - 10;
-		if (stats.deficitFrames() != null) {
-			// we know that the following variables are definitely not-null here.
-			final var defFrames = stats.deficitFrames();
-			final var nullFrames = stats.nulledFrames();
-			//noinspection ConstantConditions
-			deficitFramePenalty = (int) (Math.pow(1.03d, 500f * ((float) defFrames / 3000f)) * 600 - 600);
-			//noinspection ConstantConditions
-			nullFramePenalty = ((int) (Math.pow(1.03d, 500f * ((float) nullFrames / 3000f)) * 300 - 300)) * 2;
+		if (stats != null && stats != penalties.source) {
+			penalties = new Penalties(stats);
 		}
 		return this;
 	}
+
+	private static class Penalties {
+		private final Statistics source;
+		private final int playerPenalty, cpuPenalty, deficitFramePenalty, nullFramePenalty, total;
+
+		private Penalties(@Nullable final Statistics stats) {
+			source = stats;
+			if (stats == null) {
+				playerPenalty = cpuPenalty = deficitFramePenalty = nullFramePenalty = total = 0;
+				return;
+			}
+			playerPenalty = stats.playingPlayers();
+			cpuPenalty = (int) Math.pow(1.05d, 100 * stats.systemLoad()) * 10 - 10;
+			if (stats.frameStatsPresent()) {
+				final var defFrames = stats.deficitFrames();
+				final var nullFrames = stats.nulledFrames();
+				deficitFramePenalty = (int) (Math.pow(1.03d, 500f * ((float) defFrames / 3000f)) * 600 - 600);
+				nullFramePenalty = ((int) (Math.pow(1.03d, 500f * ((float) nullFrames / 3000f)) * 300 - 300)) * 2;
+			} else {
+				deficitFramePenalty = nullFramePenalty = 0;
+			}
+			total = playerPenalty + cpuPenalty + deficitFramePenalty + nullFramePenalty;
+		}
+	}
 }
@@ -0,0 +1,98 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/*
+Caps how many REST requests a node has in flight. Tasks get a release callback which they must run exactly once when
+their request has finished, at which point the next waiting task (if any) takes over the slot.
+ */
+
+class LoadLimiter {
+	private final int limit;
+	private final ArrayDeque<Consumer<Runnable>> waiting = new ArrayDeque<>();
+	private int inFlight;
+	private int reserved;
+
+	LoadLimiter(@Nonnegative final int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be larger than 0");
+		}
+		this.limit = limit;
+	}
+
+	void execute(@Nonnull final Consumer<Runnable> task) {
+		synchronized (this) {
+			if (inFlight >= limit) {
+				waiting.add(task);
+				return;
+			}
+			inFlight++;
+		}
+		task.accept(this::release);
+	}
+
+	private void release() {
+		final Consumer<Runnable> next;
+		synchronized (this) {
+			next = waiting.poll();
+			if (next == null) {
+				inFlight--;
+			}
+		}
+		if (next != null) {
+			next.accept(this::release);
+		}
+	}
+
+	// counts a load against this node from the moment it's picked, before any cache or store lookup gets to run. the
+	// returned callback must be run exactly once when the load has finished.
+	@CheckReturnValue
+	@Nonnull
+	synchronized Runnable reserve() {
+		reserved++;
+		return this::unreserve;
+	}
+
+	private synchronized void unreserve() {
+		reserved--;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized int inFlight() {
+		return inFlight;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	synchronized int waiting() {
+		return waiting.size();
+	}
+
+	// in flight plus waiting plus reserved, used to pick the least busy node. a reserved load which has reached the
+	// limiter counts twice, which only makes a node that is already busy look busier.
+	@CheckReturnValue
+	@Nonnegative
+	synchronized int load() {
+		return inFlight + waiting.size() + reserved;
+	}
+}
@@ -0,0 +1,172 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.CircuitState;
+import com.github.samophis.lavaclient.entities.NodeMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+@RequiredArgsConstructor
+@Accessors(fluent = true)
+public class NodeMetricsImpl implements NodeMetrics {
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final AudioNodeImpl node;
+
+	@CheckReturnValue
+	@Nonnull
+	@Override
+	public int[] laneQueueDepths() {
+		final var lanes = node.lanes();
+		final var depths = new int[lanes.length];
+		for (var i = 0; i < lanes.length; i++) {
+			depths[i] = lanes[i].depth();
+		}
+		return depths;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int outboundQueueDepth() {
+		return node.outbound().depth();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long averageOutboundQueueNanos() {
+		return node.outbound().averageQueuedNanos();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long maxOutboundQueueNanos() {
+		return node.outbound().maxQueuedNanos();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long droppedCommands() {
+		return node.outbound().dropped();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long rejectedCommands() {
+		return node.outbound().rejected();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long collapsedCommands() {
+		final var coalescer = node.coalescer();
+		return coalescer == null ? 0 : coalescer.collapsed();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int inFlightLoads() {
+		return node.loads().inFlight();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int queuedLoads() {
+		return node.loads().waiting();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public double restLatencyMillis() {
+		return node.restLatency().meanMillis();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public double restLatencyP95Millis() {
+		return node.restLatency().p95Millis();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int httpPoolCapacity() {
+		return node.http().capacity();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int httpActiveRequests() {
+		return node.http().active();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public double httpPoolUtilisation() {
+		return node.http().utilisation();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public int httpWaitQueueDepth() {
+		return node.http().waiting();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long averageHttpWaitNanos() {
+		return node.http().averageWaitNanos();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long maxHttpWaitNanos() {
+		return node.http().maxWaitNanos();
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	@Override
+	public CircuitState circuitState() {
+		return node.breaker().state();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long restTimeoutMillis() {
+		return node.restTimeout();
+	}
+}
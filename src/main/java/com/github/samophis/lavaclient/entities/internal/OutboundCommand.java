@@ -0,0 +1,64 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+@Getter(onMethod_ = @CheckReturnValue)
+@Accessors(fluent = true)
+@RequiredArgsConstructor
+public class OutboundCommand {
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final Type type;
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	private final long guildId;
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final String payload;
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final CompletableFuture<Void> future = new CompletableFuture<>();
+	@Getter(AccessLevel.NONE)
+	long enqueuedAt;
+
+	public enum Type {
+		PLAY(true),
+		STOP(true),
+		DESTROY(true),
+		VOICE_UPDATE(true),
+		PAUSE(false),
+		SEEK(false),
+		VOLUME(false);
+
+		private final boolean critical;
+
+		Type(final boolean critical) {
+			this.critical = critical;
+		}
+
+		// critical commands change what is playing and must never be dropped or reordered.
+		@CheckReturnValue
+		public boolean critical() {
+			return critical;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.OverflowPolicy;
+import io.vertx.core.http.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Bounded per-node send queue. Commands go straight to the socket while Netty keeps up and are queued once its write
+queue is full, draining again from the socket's drain handler. Everything except the metric getters must be called
+on the owning node's context, and nothing outlives the socket it was queued for.
+ */
+
+public class OutboundQueue {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutboundQueue.class);
+	private final ArrayDeque<OutboundCommand> queue = new ArrayDeque<>();
+	private final ArrayDeque<OutboundCommand> blocked = new ArrayDeque<>();
+	private final int highWatermark;
+	private final int lowWatermark;
+	private final OverflowPolicy policy;
+	private final AtomicLong queuedCount = new AtomicLong();
+	private final AtomicLong queuedNanos = new AtomicLong();
+	private final AtomicLong maxQueuedNanos = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private volatile int depth;
+	private WebSocket socket;
+
+	OutboundQueue(@Nonnegative final int highWatermark, @Nonnegative final int lowWatermark,
+	              @Nonnull final OverflowPolicy policy) {
+		if (highWatermark <= 0 || lowWatermark < 0 || lowWatermark > highWatermark) {
+			throw new IllegalArgumentException("watermarks must satisfy 0 <= low <= high and high > 0");
+		}
+		this.highWatermark = highWatermark;
+		this.lowWatermark = lowWatermark;
+		this.policy = policy;
+	}
+
+	void attach(@Nonnull final WebSocket socket) {
+		this.socket = socket;
+		socket.drainHandler(_v -> drain());
+		drain();
+	}
+
+	// whatever is still waiting was meant for the old session, so it fails rather than replaying onto the next socket.
+	void detach() {
+		socket = null;
+		final var closed = new IllegalStateException("socket closed before the command was sent!");
+		for (final var command : queue) {
+			command.future().completeExceptionally(closed);
+		}
+		for (final var command : blocked) {
+			command.future().completeExceptionally(closed);
+		}
+		queue.clear();
+		blocked.clear();
+		depth = 0;
+	}
+
+	void offer(@Nonnull final OutboundCommand command) {
+		if (socket == null) {
+			command.future().completeExceptionally(new IllegalStateException("socket isn't available!"));
+			return;
+		}
+		command.enqueuedAt = System.nanoTime();
+		if (socket != null && queue.isEmpty() && blocked.isEmpty() && !socket.writeQueueFull()) {
+			write(command);
+			return;
+		}
+		if (queue.size() < highWatermark) {
+			queue.add(command);
+		} else {
+			overflow(command);
+		}
+		drain();
+	}
+
+	private void overflow(@Nonnull final OutboundCommand command) {
+		switch (policy) {
+			case DROP_OLDEST_NON_CRITICAL:
+				if (dropOldestNonCritical()) {
+					queue.add(command);
+					return;
+				}
+				reject(command);
+				return;
+			case BLOCK:
+				// parking is bounded by the high watermark too, past that BLOCK behaves like REJECT.
+				if (blocked.size() < highWatermark) {
+					blocked.add(command);
+					return;
+				}
+				reject(command);
+				return;
+			case REJECT:
+			default:
+				reject(command);
+		}
+	}
+
+	private boolean dropOldestNonCritical() {
+		final Iterator<OutboundCommand> iterator = queue.iterator();
+		while (iterator.hasNext()) {
+			final var queued = iterator.next();
+			if (!queued.type().critical()) {
+				iterator.remove();
+				dropped.incrementAndGet();
+				queued.future().completeExceptionally(new RejectedExecutionException("dropped from full outbound queue"));
+				LOGGER.warn("outbound queue full, dropped {} for guild id: {}", queued.type(),
+						Long.toUnsignedString(queued.guildId()));
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void reject(@Nonnull final OutboundCommand command) {
+		rejected.incrementAndGet();
+		command.future().completeExceptionally(new RejectedExecutionException("outbound queue full"));
+		LOGGER.warn("outbound queue full, rejected {} for guild id: {}", command.type(),
+				Long.toUnsignedString(command.guildId()));
+	}
+
+	private void drain() {
+		while (socket != null && !socket.writeQueueFull()) {
+			if (queue.size() <= lowWatermark) {
+				while (!blocked.isEmpty() && queue.size() < highWatermark) {
+					queue.add(blocked.poll());
+				}
+			}
+			final var command = queue.poll();
+			if (command == null) {
+				break;
+			}
+			record(System.nanoTime() - command.enqueuedAt);
+			write(command);
+		}
+		depth = queue.size() + blocked.size();
+	}
+
+	private void write(@Nonnull final OutboundCommand command) {
+		try {
+			socket.writeTextMessage(command.payload());
+			command.future().complete(null);
+		} catch (final IllegalStateException exc) {
+			command.future().completeExceptionally(exc);
+		}
+	}
+
+	private void record(final long nanos) {
+		queuedCount.incrementAndGet();
+		queuedNanos.addAndGet(nanos);
+		if (nanos > maxQueuedNanos.get()) {
+			maxQueuedNanos.set(nanos);
+		}
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	int depth() {
+		return depth;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	long averageQueuedNanos() {
+		final var count = queuedCount.get();
+		return count == 0 ? 0 : queuedNanos.get() / count;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	long maxQueuedNanos() {
+		return maxQueuedNanos.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	long dropped() {
+		return dropped.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	long rejected() {
+		return rejected.get();
+	}
+}
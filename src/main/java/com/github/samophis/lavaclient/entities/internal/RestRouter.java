@@ -0,0 +1,246 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.AudioLoadResult;
+import com.github.samophis.lavaclient.entities.RestMetrics;
+import com.github.samophis.lavaclient.exceptions.CircuitOpenException;
+import com.github.samophis.lavaclient.exceptions.HttpTrackException;
+import io.vertx.core.VertxException;
+import me.escoffier.vertx.completablefuture.VertxCompletableFuture;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Sends track loads to the available node with the lowest latency EWMA. With hedging on, a duplicate goes to the next
+fastest node once the first has been quiet for its own p95 and whichever answers first wins. Hedges are paid for with
+tokens earned at hedgeRate per load (bursts of up to ten), so at most that fraction of loads is ever duplicated. A node
+failing outright (connection errors, timeouts, 5xx or its circuit opening) fails over to the second node without costing
+a token, hedging or not; a 4xx would only be repeated by the second node, so it fails the load straight away. Nodes
+whose circuit breaker is open aren't considered at all.
+ */
+
+class RestRouter implements RestMetrics {
+	private static final double MAX_HEDGE_TOKENS = 10;
+	private final LavaClientImpl client;
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong hedgedLoads = new AtomicLong();
+	private final AtomicLong hedgeWins = new AtomicLong();
+	private final AtomicLong throttledHedges = new AtomicLong();
+	private double hedgeTokens;
+
+	RestRouter(@Nonnull final LavaClientImpl client) {
+		this.client = client;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	CompletionStage<AudioLoadResult> load(@Nonnull final String identifier) {
+		loads.incrementAndGet();
+		earnHedgeToken();
+		var primary = (AudioNodeImpl) null;
+		var secondary = (AudioNodeImpl) null;
+		for (final var node : client.nodes()) {
+			final var impl = (AudioNodeImpl) node;
+			// nodes with an open circuit are skipped, so their loads go elsewhere until probes are let through again.
+			if (!node.available() || !impl.breaker().allowsRequests()) {
+				continue;
+			}
+			if (primary == null || faster(impl, primary)) {
+				secondary = primary;
+				primary = impl;
+			} else if (secondary == null || faster(impl, secondary)) {
+				secondary = impl;
+			}
+		}
+		if (primary == null) {
+			final var failed = new VertxCompletableFuture<AudioLoadResult>(client.vertx());
+			failed.completeExceptionally(new IllegalStateException("no available nodes could be found!"));
+			return failed;
+		}
+		if (secondary == null) {
+			return primary.load(identifier);
+		}
+		if (!client.options().hedgeLoads()) {
+			return withFailover(identifier, primary, secondary);
+		}
+		return hedged(identifier, primary, secondary);
+	}
+
+	// covers the primary's circuit opening (or it timing out) between being picked and the request going out.
+	@Nonnull
+	private CompletionStage<AudioLoadResult> withFailover(@Nonnull final String identifier,
+	                                                      @Nonnull final AudioNodeImpl primary,
+	                                                      @Nonnull final AudioNodeImpl secondary) {
+		final var result = new VertxCompletableFuture<AudioLoadResult>(client.vertx());
+		primary.load(identifier).whenComplete((loaded, err) -> {
+			if (err == null) {
+				result.complete(loaded);
+				return;
+			}
+			if (!retriable(err)) {
+				result.completeExceptionally(err);
+				return;
+			}
+			secondary.load(identifier).whenComplete((retried, retryErr) -> {
+				if (retryErr == null) {
+					result.complete(retried);
+				} else {
+					result.completeExceptionally(retryErr);
+				}
+			});
+		});
+		return result;
+	}
+
+	// the node load() would send to first, for other REST calls which want the same routing.
+	@CheckReturnValue
+	@Nullable
+	AudioNodeImpl fastest() {
+		var fastest = (AudioNodeImpl) null;
+		for (final var node : client.nodes()) {
+			final var impl = (AudioNodeImpl) node;
+			if (node.available() && impl.breaker().allowsRequests() && (fastest == null || faster(impl, fastest))) {
+				fastest = impl;
+			}
+		}
+		return fastest;
+	}
+
+	@Nonnull
+	private CompletionStage<AudioLoadResult> hedged(@Nonnull final String identifier, @Nonnull final AudioNodeImpl primary,
+	                                                @Nonnull final AudioNodeImpl secondary) {
+		final var vertx = client.vertx();
+		final var result = new VertxCompletableFuture<AudioLoadResult>(vertx);
+		final var failures = new AtomicInteger();
+		final var secondSent = new AtomicBoolean();
+		final var delay = Math.max(client.options().hedgeMinDelay(),
+				(long) Math.ceil(primary.restLatency().p95Millis()));
+		final var timer = vertx.setTimer(Math.max(1, delay), _id -> {
+			if (result.isDone()) {
+				return;
+			}
+			if (!takeHedgeToken()) {
+				throttledHedges.incrementAndGet();
+				return;
+			}
+			if (secondSent.compareAndSet(false, true)) {
+				hedgedLoads.incrementAndGet();
+				loadFrom(secondary, identifier, result, failures, true);
+			}
+		});
+		primary.load(identifier).whenComplete((loaded, err) -> {
+			if (err == null) {
+				vertx.cancelTimer(timer);
+				result.complete(loaded);
+			} else if (!retriable(err)) {
+				vertx.cancelTimer(timer);
+				result.completeExceptionally(err);
+			} else if (failures.incrementAndGet() == 2) {
+				result.completeExceptionally(err);
+			} else if (secondSent.compareAndSet(false, true)) {
+				vertx.cancelTimer(timer);
+				loadFrom(secondary, identifier, result, failures, false);
+			}
+		});
+		return result;
+	}
+
+	private void loadFrom(@Nonnull final AudioNodeImpl node, @Nonnull final String identifier,
+	                      @Nonnull final VertxCompletableFuture<AudioLoadResult> result,
+	                      @Nonnull final AtomicInteger failures, final boolean hedge) {
+		node.load(identifier).whenComplete((loaded, err) -> {
+			if (err == null) {
+				if (result.complete(loaded) && hedge) {
+					hedgeWins.incrementAndGet();
+				}
+			} else if (!retriable(err) || failures.incrementAndGet() == 2) {
+				result.completeExceptionally(err);
+			}
+		});
+	}
+
+	// only failures another node could plausibly avoid are worth a second request.
+	private static boolean retriable(@Nonnull final Throwable err) {
+		final var cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+		if (cause instanceof HttpTrackException) {
+			return ((HttpTrackException) cause).statusCode() >= 500;
+		}
+		return cause instanceof CircuitOpenException || cause instanceof TimeoutException
+				|| cause instanceof IOException || cause instanceof VertxException;
+	}
+
+	// unsampled nodes go first so that every node gets measured, ties go to the node with less in flight.
+	private static boolean faster(@Nonnull final AudioNodeImpl node, @Nonnull final AudioNodeImpl than) {
+		final var latency = node.restLatency();
+		final var other = than.restLatency();
+		if (latency.sampled() != other.sampled()) {
+			return !latency.sampled();
+		}
+		final var comparison = Double.compare(latency.meanMillis(), other.meanMillis());
+		return comparison != 0 ? comparison < 0 : node.loads().load() < than.loads().load();
+	}
+
+	private synchronized void earnHedgeToken() {
+		hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + client.options().hedgeRate());
+	}
+
+	private synchronized boolean takeHedgeToken() {
+		if (hedgeTokens < 1) {
+			return false;
+		}
+		hedgeTokens--;
+		return true;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long loads() {
+		return loads.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long hedgedLoads() {
+		return hedgedLoads.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long hedgeWins() {
+		return hedgeWins.get();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public long throttledHedges() {
+		return throttledHedges.get();
+	}
+}
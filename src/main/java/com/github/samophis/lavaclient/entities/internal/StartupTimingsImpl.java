@@ -0,0 +1,68 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.StartupTimings;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class StartupTimingsImpl implements StartupTimings {
+	private final Map<String, Long> phases = new LinkedHashMap<>();
+
+	@Nonnull
+	public <T> T time(@Nonnull final String phase, @Nonnull final Supplier<T> supplier) {
+		final var start = System.nanoTime();
+		final var result = supplier.get();
+		record(phase, System.nanoTime() - start);
+		return result;
+	}
+
+	public synchronized void record(@Nonnull final String phase, @Nonnegative final long nanos) {
+		phases.put(phase, nanos);
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	@Override
+	public synchronized Map<String, Long> phases() {
+		return new LinkedHashMap<>(phases);
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	@Override
+	public synchronized long nanos(@Nonnull final String phase) {
+		return phases.getOrDefault(phase, 0L);
+	}
+
+	@Override
+	public synchronized String toString() {
+		final var builder = new StringBuilder();
+		phases.forEach((phase, nanos) -> {
+			if (builder.length() != 0) {
+				builder.append(", ");
+			}
+			builder.append(phase).append('=').append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms");
+		});
+		return builder.toString();
+	}
+}
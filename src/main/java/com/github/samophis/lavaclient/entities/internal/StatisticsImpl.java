@@ -16,16 +16,18 @@
 package com.github.samophis.lavaclient.entities.internal;
 
 import com.github.samophis.lavaclient.entities.Statistics;
-import lombok.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 
+// immutable so that a single volatile write publishes a consistent snapshot.
 @Getter
-@Setter
-@NoArgsConstructor
+@RequiredArgsConstructor
 @Accessors(fluent = true)
 public class StatisticsImpl implements Statistics {
-	private int players, playingPlayers, cpuCores;
-	private long uptime, freeMemory, allocatedMemory, usedMemory, reservableMemory;
-	private double systemLoad, lavalinkLoad;
-	private Long sentFrames, nulledFrames, deficitFrames;
+	private final int players, playingPlayers, cpuCores;
+	private final long uptime, freeMemory, allocatedMemory, usedMemory, reservableMemory;
+	private final double systemLoad, lavalinkLoad;
+	private final boolean frameStatsPresent;
+	private final long sentFrames, nulledFrames, deficitFrames;
 }
@@ -0,0 +1,39 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@ToString(exclude = "encoded")
+@Accessors(fluent = true)
+public class TrackInfoImpl implements TrackInfo {
+	private final String encoded;
+	private final int version;
+	private final String title, author;
+	private final long length;
+	private final String identifier;
+	private final boolean stream;
+	private final String uri, source;
+	private final long position;
+}
@@ -0,0 +1,466 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.entities.internal;
+
+import com.github.samophis.lavaclient.exceptions.HttpTrackException;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEvent;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.Pump;
+import io.vertx.core.streams.WriteStream;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/*
+Cold, single-subscriber publisher of a /loadtracks response. The body is pumped into a streaming JSON parser which only
+materialises one track object at a time and groups the blobs into chunks; chunks are decoded when they're handed to the
+subscriber (or ahead of time on the decode pool, when the client has one). Once a few chunks are waiting for demand the
+sink reports itself as full, which pauses the HTTP response until the subscriber catches up. A watchdog resets the
+request and fails the stream once the node has sent nothing for the node's REST timeout, not counting time the response
+spends paused.
+Everything apart from subscribe(), request() and cancel() runs on the node's context, and those three hop over to it.
+ */
+
+class TrackStream implements Flow.Publisher<List<AudioTrack>>, Flow.Subscription {
+	private static final int MAX_READY_CHUNKS = 4;
+	private final AudioNodeImpl node;
+	private final String identifier;
+	private final int chunkSize;
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+	private final ArrayDeque<Chunk> ready = new ArrayDeque<>();
+	private Flow.Subscriber<? super List<AudioTrack>> subscriber;
+	private Context context;
+	private JsonParser parser;
+	private Handler<Void> drainHandler;
+	private List<String> pending;
+	private long demand;
+	private int depth;
+	private boolean inTracks;
+	private boolean inException;
+	private boolean finished;
+	private boolean terminated;
+	private String loadType;
+	private String failure;
+	private long stallTimeout;
+	private long lastProgress;
+	private long watchdog;
+	private boolean settled;
+	private HttpClientRequest request;
+	private Runnable release;
+	private long permit;
+
+	TrackStream(@Nonnull final AudioNodeImpl node, @Nonnull final String identifier, @Nonnegative final int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunk size must be larger than 0");
+		}
+		this.node = node;
+		this.identifier = identifier;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public void subscribe(@Nonnull final Flow.Subscriber<? super List<AudioTrack>> subscriber) {
+		Objects.requireNonNull(subscriber, "subscriber");
+		if (!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(final long n) {}
+
+				@Override
+				public void cancel() {}
+			});
+			subscriber.onError(new IllegalStateException("track streams only support a single subscriber!"));
+			return;
+		}
+		this.subscriber = subscriber;
+		context = node.nodeContext();
+		if (context == null) {
+			terminated = true;
+			subscriber.onSubscribe(this);
+			subscriber.onError(new IllegalStateException("node isn't deployed!"));
+			return;
+		}
+		context.runOnContext(_v -> {
+			subscriber.onSubscribe(this);
+			node.loads().execute(release -> context.runOnContext(_vd -> begin(release)));
+		});
+	}
+
+	@Override
+	public void request(final long n) {
+		final var ctx = context;
+		if (ctx == null) {
+			return;
+		}
+		ctx.runOnContext(_v -> {
+			if (terminated) {
+				return;
+			}
+			if (n <= 0) {
+				fail(new IllegalArgumentException("non-positive request: " + n));
+				return;
+			}
+			demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+			drain();
+		});
+	}
+
+	@Override
+	public void cancel() {
+		final var ctx = context;
+		if (ctx == null) {
+			return;
+		}
+		ctx.runOnContext(_v -> {
+			terminated = true;
+			clear();
+		});
+	}
+
+	// the raw request is deprecated in favour of the WebClient, but only it can be reset when the node stalls.
+	@SuppressWarnings("deprecation")
+	private void begin(@Nonnull final Runnable release) {
+		if (terminated) {
+			release.run();
+			return;
+		}
+		final var permit = node.breaker().tryAcquire();
+		if (permit == CircuitBreaker.REFUSED) {
+			release.run();
+			fail(node.circuitOpen());
+			return;
+		}
+		parser = JsonParser.newParser();
+		parser.handler(this::handleEvent);
+		parser.exceptionHandler(this::fail);
+		this.permit = permit;
+		final var slot = node.http().acquireSlot();
+		this.release = () -> {
+			slot.run();
+			release.run();
+		};
+		// no vert.x timeout here: it counts a body paused by a slow subscriber as inactivity, the watchdog doesn't.
+		request = node.http().httpClient()
+				.request(HttpMethod.GET, node.port(), node.baseUrl(), AudioNodeImpl.loadPath(identifier), this::responded);
+		if (!node.password().isEmpty()) {
+			request.putHeader("Authorization", node.password());
+		}
+		request.exceptionHandler(this::failed);
+		stallTimeout = node.restTimeout();
+		lastProgress = System.nanoTime();
+		watchdog = context.owner().setTimer(stallTimeout, _id -> checkStall());
+		request.end();
+	}
+
+	private void responded(@Nonnull final HttpClientResponse response) {
+		response.exceptionHandler(this::failed);
+		response.endHandler(_v -> ended(response.statusCode()));
+		if (response.statusCode() != 200) {
+			// nothing reads the body, so it's thrown away as it arrives.
+			fail(new HttpTrackException("failed to load audio!", response.statusCode(), response.statusMessage()));
+			return;
+		}
+		Pump.pump(response, new Sink()).start();
+	}
+
+	private void ended(final int status) {
+		if (!settle()) {
+			return;
+		}
+		// a stream's duration grows with the playlist, so it only counts towards the breaker and not the latency.
+		node.recordBreakerResult(status >= 500, 0, permit);
+		if (terminated) {
+			return;
+		}
+		parser.end();
+		if (terminated) {
+			return;
+		}
+		if ("LOAD_FAILED".equals(loadType)) {
+			fail(new IllegalStateException("failed to load audio! " + failure));
+			return;
+		}
+		flush();
+		finished = true;
+		drain();
+	}
+
+	private void failed(@Nonnull final Throwable err) {
+		if (!settle()) {
+			return;
+		}
+		node.recordBreakerResult(true, 0, permit);
+		fail(err);
+	}
+
+	// true only for the first of the response ending, an error and the watchdog, which is the one that frees the slots.
+	private boolean settle() {
+		if (settled) {
+			return false;
+		}
+		settled = true;
+		context.owner().cancelTimer(watchdog);
+		release.run();
+		return true;
+	}
+
+	private void checkStall() {
+		if (settled) {
+			return;
+		}
+		final var now = System.nanoTime();
+		// while the sink is full we're waiting on the subscriber rather than the node.
+		if (!terminated && ready.size() >= MAX_READY_CHUNKS) {
+			lastProgress = now;
+		}
+		final var idle = TimeUnit.NANOSECONDS.toMillis(now - lastProgress);
+		if (idle < stallTimeout) {
+			watchdog = context.owner().setTimer(Math.max(1, stallTimeout - idle), _id -> checkStall());
+			return;
+		}
+		settle();
+		// over HTTP/1.x this closes the connection, so a hung node doesn't keep it (or a pool slot) forever.
+		request.reset();
+		node.recordBreakerResult(true, 0, permit);
+		fail(new TimeoutException(String.format("audio node: %s sent nothing for %dms while loading %s",
+				node.baseUrl(), idle, identifier)));
+	}
+
+	private void handleEvent(@Nonnull final JsonEvent event) {
+		if (terminated) {
+			return;
+		}
+		switch (event.type()) {
+			case START_OBJECT:
+				if (depth == 1 && "exception".equals(event.fieldName())) {
+					inException = true;
+				}
+				depth++;
+				break;
+			case END_OBJECT:
+				if (--depth == 1) {
+					inException = false;
+				}
+				break;
+			case START_ARRAY:
+				// each track object arrives whole from here on, everything else stays as events.
+				if (depth == 1 && "tracks".equals(event.fieldName())) {
+					inTracks = true;
+					parser.objectValueMode();
+				}
+				depth++;
+				break;
+			case END_ARRAY:
+				if (--depth == 1 && inTracks) {
+					inTracks = false;
+					parser.objectEventMode();
+					flush();
+				}
+				break;
+			case VALUE:
+				if (inTracks && depth == 2 && event.value() instanceof JsonObject) {
+					track(event.objectValue().getString("track"));
+				} else if (depth == 1 && "loadType".equals(event.fieldName())) {
+					loadType = event.stringValue();
+				} else if (inException && depth == 2 && "message".equals(event.fieldName())) {
+					failure = event.stringValue();
+				}
+				break;
+		}
+	}
+
+	private void track(@Nullable final String data) {
+		if (data == null) {
+			return;
+		}
+		if (pending == null) {
+			pending = new ArrayList<>(chunkSize);
+		}
+		pending.add(data);
+		if (pending.size() == chunkSize) {
+			flush();
+		}
+	}
+
+	private void flush() {
+		if (pending != null && !pending.isEmpty()) {
+			final var chunk = new Chunk(pending);
+			ready.add(chunk);
+			final var pool = node.decodePool();
+			if (pool != null) {
+				chunk.decoding = true;
+				pool.decode(chunk.encoded).setHandler(result -> {
+					chunk.decoding = false;
+					if (result.succeeded()) {
+						chunk.tracks = result.result();
+					} else {
+						chunk.error = result.cause();
+					}
+					drain();
+				});
+			}
+			drain();
+		}
+		pending = null;
+	}
+
+	private void drain() {
+		while (!terminated && demand > 0 && !ready.isEmpty()) {
+			final var chunk = ready.peek();
+			if (chunk.decoding) {
+				// in order only, drain() runs again once the pool is done with it.
+				break;
+			}
+			if (chunk.error != null) {
+				fail(chunk.error);
+				return;
+			}
+			if (chunk.tracks == null) {
+				try {
+					chunk.tracks = chunk.encoded
+							.stream()
+							.map(AudioTrackUtil::fromString)
+							.collect(Collectors.toUnmodifiableList());
+				} catch (final RuntimeException exc) {
+					fail(exc);
+					return;
+				}
+			}
+			ready.poll();
+			demand--;
+			subscriber.onNext(chunk.tracks);
+		}
+		if (!terminated && finished && ready.isEmpty()) {
+			terminated = true;
+			subscriber.onComplete();
+		}
+		if (terminated || ready.size() < MAX_READY_CHUNKS) {
+			resume();
+		}
+	}
+
+	private void fail(@Nonnull final Throwable err) {
+		if (terminated) {
+			return;
+		}
+		terminated = true;
+		clear();
+		subscriber.onError(err);
+	}
+
+	// once terminated the rest of the body is read and thrown away so the connection and load slot are freed.
+	private void clear() {
+		ready.clear();
+		pending = null;
+		resume();
+	}
+
+	private void resume() {
+		final var handler = drainHandler;
+		if (handler != null) {
+			drainHandler = null;
+			// the node gets a full timeout from the moment it's allowed to send again.
+			lastProgress = System.nanoTime();
+			handler.handle(null);
+		}
+	}
+
+	private static final class Chunk {
+		private final List<String> encoded;
+		private List<AudioTrack> tracks;
+		private Throwable error;
+		private boolean decoding;
+
+		private Chunk(@Nonnull final List<String> encoded) {
+			this.encoded = encoded;
+		}
+	}
+
+	private final class Sink implements WriteStream<Buffer> {
+		@Override
+		public Sink exceptionHandler(@Nullable final Handler<Throwable> handler) {
+			return this;
+		}
+
+		@Override
+		public Sink write(@Nonnull final Buffer data) {
+			lastProgress = System.nanoTime();
+			if (!terminated) {
+				parser.handle(data);
+			}
+			return this;
+		}
+
+		public Sink write(@Nonnull final Buffer data, @Nullable final Handler<AsyncResult<Void>> handler) {
+			write(data);
+			if (handler != null) {
+				handler.handle(Future.succeededFuture());
+			}
+			return this;
+		}
+
+		@Override
+		public void end() {
+			if (!terminated) {
+				parser.end();
+			}
+		}
+
+		public void end(@Nullable final Handler<AsyncResult<Void>> handler) {
+			end();
+			if (handler != null) {
+				handler.handle(Future.succeededFuture());
+			}
+		}
+
+		@Override
+		public Sink setWriteQueueMaxSize(final int maxSize) {
+			return this;
+		}
+
+		@Override
+		public boolean writeQueueFull() {
+			return !terminated && ready.size() >= MAX_READY_CHUNKS;
+		}
+
+		@Override
+		public Sink drainHandler(@Nullable final Handler<Void> handler) {
+			drainHandler = handler;
+			return this;
+		}
+	}
+}
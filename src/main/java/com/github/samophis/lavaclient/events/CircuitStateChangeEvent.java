@@ -0,0 +1,40 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.events;
+
+import com.github.samophis.lavaclient.entities.AudioNode;
+import com.github.samophis.lavaclient.entities.CircuitState;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
+@Accessors(fluent = true)
+@RequiredArgsConstructor
+public class CircuitStateChangeEvent implements LavalinkEvent {
+	private final AudioNode node;
+	private final EventType<CircuitStateChangeEvent> type = EventType.CIRCUIT_STATE_CHANGE_EVENT;
+	private final CircuitState previousState;
+	private final CircuitState state;
+
+	// share of the calls behind the change that failed: the window when opening, the probes when leaving half-open.
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnegative})
+	private final double failureRate;
+}
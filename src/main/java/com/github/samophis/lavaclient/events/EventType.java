@@ -15,9 +15,24 @@
  */
 package com.github.samophis.lavaclient.events;
 
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class EventType<T extends LavalinkEvent> {
-	private EventType() {}
+	private static int counter;
+	private final int id;
+
+	private EventType() {
+		id = counter++;
+	}
+
+	// dense, zero-based index used for array-based listener lookup.
+	@Nonnegative
+	@CheckReturnValue
+	public int id() {
+		return id;
+	}
 
 	public static final EventType<TrackStartEvent> TRACK_START_EVENT = new EventType<>();
 	public static final EventType<PlayerPauseEvent> PLAYER_PAUSE_EVENT = new EventType<>();
@@ -29,4 +44,7 @@ public class EventType<T extends LavalinkEvent> {
 	public static final EventType<PlayerUpdateEvent> PLAYER_UPDATE_EVENT = new EventType<>();
 	public static final EventType<StatsUpdateEvent> STATS_UPDATE_EVENT = new EventType<>();
 	public static final EventType<WebSocketClosedEvent> WEB_SOCKET_CLOSED_EVENT = new EventType<>();
+
+	// produced by the client itself rather than lavalink.
+	public static final EventType<CircuitStateChangeEvent> CIRCUIT_STATE_CHANGE_EVENT = new EventType<>();
 }
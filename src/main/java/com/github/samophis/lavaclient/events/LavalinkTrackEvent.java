@@ -15,13 +15,23 @@
  */
 package com.github.samophis.lavaclient.events;
 
+import com.github.samophis.lavaclient.entities.TrackInfo;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 
 public interface LavalinkTrackEvent extends LavalinkPlayerEvent {
+	@Nonnull
+	@CheckReturnValue
+	String encodedTrack();
+
 	@Nonnull
 	@CheckReturnValue
 	AudioTrack track();
+
+	// decoded without lavaplayer, cheaper than track() when only the metadata is needed.
+	@Nonnull
+	@CheckReturnValue
+	TrackInfo trackInfo();
 }
@@ -17,6 +17,9 @@ package com.github.samophis.lavaclient.events;
 
 import com.github.samophis.lavaclient.entities.AudioNode;
 import com.github.samophis.lavaclient.entities.LavaPlayer;
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.util.TrackDecoder;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
 import lombok.Getter;
@@ -30,9 +33,13 @@ import javax.annotation.Nonnull;
 @Accessors(fluent = true)
 @RequiredArgsConstructor
 public class TrackEndEvent implements LavalinkTrackEvent {
-	private final AudioTrack track;
+	private final String encodedTrack;
 	private final AudioNode node;
 	private final LavaPlayer player;
 	private final AudioTrackEndReason reason;
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final AudioTrack track = AudioTrackUtil.fromString(encodedTrack);
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final TrackInfo trackInfo = TrackDecoder.decode(encodedTrack);
 	private final EventType<TrackEndEvent> type = EventType.TRACK_END_EVENT;
 }
@@ -17,7 +17,10 @@ package com.github.samophis.lavaclient.events;
 
 import com.github.samophis.lavaclient.entities.AudioNode;
 import com.github.samophis.lavaclient.entities.LavaPlayer;
+import com.github.samophis.lavaclient.entities.TrackInfo;
 import com.github.samophis.lavaclient.exceptions.RemoteTrackException;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.util.TrackDecoder;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -30,9 +33,15 @@ import javax.annotation.Nonnull;
 @Accessors(fluent = true)
 @RequiredArgsConstructor
 public class TrackExceptionEvent implements LavalinkTrackEvent {
-	private final AudioTrack track;
+	private final String encodedTrack;
 	private final AudioNode node;
 	private final LavaPlayer player;
-	private final RemoteTrackException exception;
+	private final String error;
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final AudioTrack track = AudioTrackUtil.fromString(encodedTrack);
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final TrackInfo trackInfo = TrackDecoder.decode(encodedTrack);
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final RemoteTrackException exception = new RemoteTrackException(track(), node, player, error);
 	private final EventType<TrackExceptionEvent> type = EventType.TRACK_EXCEPTION_EVENT;
 }
@@ -17,6 +17,9 @@ package com.github.samophis.lavaclient.events;
 
 import com.github.samophis.lavaclient.entities.AudioNode;
 import com.github.samophis.lavaclient.entities.LavaPlayer;
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import com.github.samophis.lavaclient.util.AudioTrackUtil;
+import com.github.samophis.lavaclient.util.TrackDecoder;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -29,9 +32,13 @@ import javax.annotation.Nonnull;
 @Accessors(fluent = true)
 @RequiredArgsConstructor
 public class TrackStuckEvent implements LavalinkTrackEvent {
-	private final AudioTrack track;
+	private final String encodedTrack;
 	private final AudioNode node;
 	private final LavaPlayer player;
 	private final long thresholdMs;
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final AudioTrack track = AudioTrackUtil.fromString(encodedTrack);
+	@Getter(lazy = true, onMethod_ = {@CheckReturnValue, @Nonnull})
+	private final TrackInfo trackInfo = TrackDecoder.decode(encodedTrack);
 	private final EventType<TrackStuckEvent> type = EventType.TRACK_STUCK_EVENT;
 }
@@ -15,6 +15,8 @@
  */
 package com.github.samophis.lavaclient.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.samophis.lavaclient.exceptions.LocalTrackException;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
@@ -34,21 +36,66 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 public class AudioTrackUtil {
 	private AudioTrackUtil() {}
-	private static final AudioPlayerManager PLAYER_MANAGER = new DefaultAudioPlayerManager();
 	private static final Logger LOGGER = LoggerFactory.getLogger(AudioTrackUtil.class);
+	private static volatile TrackCache cache;
+	// weak identity side table remembering the encoded form of tracks we decoded or encoded ourselves.
+	private static final Cache<AudioTrack, Encoded> ENCODED = Caffeine.newBuilder().weakKeys().build();
+
+	@CheckReturnValue
+	@Nullable
+	public static TrackCache cache() {
+		return cache;
+	}
+
+	public static void cache(@Nullable final TrackCache trackCache) {
+		cache = trackCache;
+	}
+
+	// forces the player manager (and every source manager behind it) to load now rather than on first decode.
+	public static void preload() {
+		LOGGER.debug("preloaded player manager: {}", Manager.INSTANCE);
+	}
 
 	@CheckReturnValue
 	@Nonnull
 	public static AudioTrack fromString(@Nonnull final String data) {
+		final var trackCache = cache;
+		final var track = trackCache == null ? decode(data) : trackCache.get(data, AudioTrackUtil::decode);
+		ENCODED.put(track, new Encoded(data, track.getPosition()));
+		return track;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	public static String fromTrack(@Nonnull final AudioTrack track) {
+		// the position is part of the encoded form, so a memo is only good while the track hasn't moved.
+		final var position = track.getPosition();
+		final var memo = ENCODED.getIfPresent(track);
+		if (memo != null && memo.position == position) {
+			return memo.data;
+		}
+		final var data = encode(track);
+		ENCODED.put(track, new Encoded(data, position));
+		final var trackCache = cache;
+		if (trackCache != null) {
+			trackCache.put(data, track);
+		}
+		return data;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	private static AudioTrack decode(@Nonnull final String data) {
 		try {
 			final var stream = new ByteArrayInputStream(Base64.decode(data));
-			return PLAYER_MANAGER.decodeTrack(new MessageInput(stream)).decodedTrack;
+			return Manager.INSTANCE.decodeTrack(new MessageInput(stream)).decodedTrack;
 		} catch (final IOException exc) {
 			LOGGER.error("error when decoding track: {} | {}", data, exc);
 			throw new LocalTrackException(exc);
@@ -57,10 +104,10 @@ public class AudioTrackUtil {
 
 	@CheckReturnValue
 	@Nonnull
-	public static String fromTrack(@Nonnull final AudioTrack track) {
+	private static String encode(@Nonnull final AudioTrack track) {
 		try {
 			final var stream = new ByteArrayOutputStream();
-			PLAYER_MANAGER.encodeTrack(new MessageOutput(stream), track);
+			Manager.INSTANCE.encodeTrack(new MessageOutput(stream), track);
 			return Base64.encodeBytes(stream.toByteArray());
 		} catch (final IOException exc) {
 			LOGGER.error("error when encoding track: {} | {}", track.getIdentifier(), exc);
@@ -68,13 +115,31 @@ public class AudioTrackUtil {
 		}
 	}
 
-	static {
-		PLAYER_MANAGER.registerSourceManager(new YoutubeAudioSourceManager(true));
-		PLAYER_MANAGER.registerSourceManager(new SoundCloudAudioSourceManager(true));
-		PLAYER_MANAGER.registerSourceManager(new BeamAudioSourceManager());
-		PLAYER_MANAGER.registerSourceManager(new BandcampAudioSourceManager());
-		PLAYER_MANAGER.registerSourceManager(new TwitchStreamAudioSourceManager());
-		PLAYER_MANAGER.registerSourceManager(new HttpAudioSourceManager());
-		PLAYER_MANAGER.registerSourceManager(new VimeoAudioSourceManager());
+	private static final class Encoded {
+		private final String data;
+		private final long position;
+
+		private Encoded(@Nonnull final String data, final long position) {
+			this.data = data;
+			this.position = position;
+		}
+	}
+
+	// holder idiom: the manager and its source managers (http pools, threads) only load on first real use.
+	private static final class Manager {
+		private static final AudioPlayerManager INSTANCE = create();
+
+		@Nonnull
+		private static AudioPlayerManager create() {
+			final var manager = new DefaultAudioPlayerManager();
+			manager.registerSourceManager(new YoutubeAudioSourceManager(true));
+			manager.registerSourceManager(new SoundCloudAudioSourceManager(true));
+			manager.registerSourceManager(new BeamAudioSourceManager());
+			manager.registerSourceManager(new BandcampAudioSourceManager());
+			manager.registerSourceManager(new TwitchStreamAudioSourceManager());
+			manager.registerSourceManager(new HttpAudioSourceManager());
+			manager.registerSourceManager(new VimeoAudioSourceManager());
+			return manager;
+		}
 	}
 }
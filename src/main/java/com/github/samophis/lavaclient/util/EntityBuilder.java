@@ -22,6 +22,8 @@ import javax.annotation.Nonnull;
 
 public class EntityBuilder {
 	private EntityBuilder() {}
+	private static final int MAX_RETAINED_CAPACITY = 16384;
+	private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
 
 	public static JsonObject createDestroyPayload(@Nonnull final String guildId) {
 		return new JsonObject()
@@ -84,5 +86,115 @@ public class EntityBuilder {
 		return object;
 	}
 
+	/*
+	The encode* methods write the same frames as the create* methods straight into a reused per-thread builder,
+	skipping the JsonObject (and its LinkedHashMap) entirely. The result is the exact text frame that gets sent.
+	 */
+
+	@Nonnull
+	public static String encodeDestroyPayload(@Nonnull final String guildId) {
+		return end(begin(guildId, "destroy"));
+	}
+
+	@Nonnull
+	public static String encodeStopPayload(@Nonnull final String guildId) {
+		return end(begin(guildId, "stop"));
+	}
+
+	@Nonnull
+	public static String encodePausePayload(@Nonnull final String guildId, final boolean paused) {
+		return end(begin(guildId, "pause").append(",\"pause\":").append(paused));
+	}
+
+	@Nonnull
+	public static String encodeSeekPayload(@Nonnull final String guildId, @Nonnegative final long position) {
+		return end(begin(guildId, "seek").append(",\"position\":").append(position));
+	}
+
+	@Nonnull
+	public static String encodeVolumePayload(@Nonnull final String guildId, @Nonnegative final int volume) {
+		return end(begin(guildId, "volume").append(",\"volume\":").append(volume));
+	}
+
+	@Nonnull
+	public static String encodeVoiceUpdatePayload(@Nonnull final String guildId, @Nonnull final String sessionId,
+	                                              @Nonnull final String voiceToken, @Nonnull final String endpoint) {
+		final var builder = begin(guildId, "voiceUpdate").append(",\"sessionId\":");
+		appendString(builder, sessionId).append(",\"event\":{\"endpoint\":");
+		appendString(builder, endpoint).append(",\"token\":");
+		appendString(builder, voiceToken).append(",\"guild_id\":");
+		appendString(builder, guildId).append('}');
+		return end(builder);
+	}
+
+	@Nonnull
+	public static String encodePlayPayload(@Nonnull final String guildId, @Nonnull final String track,
+	                                       @Nonnegative final long startTime, @Nonnegative final long endTime,
+	                                       final boolean noReplace) {
+		final var builder = begin(guildId, "play").append(",\"track\":");
+		appendString(builder, track)
+				.append(",\"noReplace\":").append(noReplace)
+				.append(",\"startTime\":").append(startTime);
+		if (endTime > 0) {
+			builder.append(",\"endTime\":").append(endTime);
+		}
+		return end(builder);
+	}
+
+	@Nonnull
+	private static StringBuilder begin(@Nonnull final String guildId, @Nonnull final String op) {
+		final var builder = BUILDER.get();
+		builder.setLength(0);
+		builder.append("{\"op\":\"").append(op).append("\",\"guildId\":");
+		return appendString(builder, guildId);
+	}
+
+	@Nonnull
+	private static String end(@Nonnull final StringBuilder builder) {
+		final var payload = builder.append('}').toString();
+		if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+			BUILDER.remove();
+		}
+		return payload;
+	}
+
+	@Nonnull
+	private static StringBuilder appendString(@Nonnull final StringBuilder builder, @Nonnull final String value) {
+		builder.append('"');
+		for (var i = 0; i < value.length(); i++) {
+			final var c = value.charAt(i);
+			switch (c) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				case '\b':
+					builder.append("\\b");
+					break;
+				case '\f':
+					builder.append("\\f");
+					break;
+				default:
+					if (c < 0x20) {
+						builder.append(String.format("\\u%04x", (int) c));
+					} else {
+						builder.append(c);
+					}
+			}
+		}
+		return builder.append('"');
+	}
+
 	// Ignoring Equalizer support for now.
 }
@@ -0,0 +1,364 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import io.vertx.core.buffer.Buffer;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+
+/*
+Single-pass scanner over a raw Lavalink frame which picks out "op", "guildId" and "state.position/time" without
+building a JsonObject tree. Instances are reused and aren't thread-safe, so keep one per event loop.
+ */
+
+@Accessors(fluent = true)
+@SuppressWarnings("WeakerAccess")
+public class FrameScanner {
+	public static final int OP_UNKNOWN = 0;
+	public static final int OP_PLAYER_UPDATE = 1;
+	public static final int OP_STATS = 2;
+	public static final int OP_EVENT = 3;
+
+	private static final byte[] KEY_OP = bytes("op");
+	private static final byte[] KEY_GUILD_ID = bytes("guildId");
+	private static final byte[] KEY_STATE = bytes("state");
+	private static final byte[] KEY_POSITION = bytes("position");
+	private static final byte[] KEY_TIME = bytes("time");
+	private static final byte[] OP_NAME_PLAYER_UPDATE = bytes("playerUpdate");
+	private static final byte[] OP_NAME_STATS = bytes("stats");
+	private static final byte[] OP_NAME_EVENT = bytes("event");
+
+	@Getter(onMethod_ = @CheckReturnValue) private int op;
+	@Getter(onMethod_ = @CheckReturnValue) private long guildId;
+	@Getter(onMethod_ = @CheckReturnValue) private boolean hasGuildId;
+	@Getter(onMethod_ = @CheckReturnValue) private long position;
+	@Getter(onMethod_ = @CheckReturnValue) private boolean hasPosition;
+	@Getter(onMethod_ = @CheckReturnValue) private long time;
+	@Getter(onMethod_ = @CheckReturnValue) private boolean hasTime;
+
+	private Buffer buffer;
+	private int pos;
+	private int end;
+	private long parsed;
+
+	// returns false if the frame has a shape we don't understand, in which case callers should fall back to JsonObject.
+	@CheckReturnValue
+	public boolean scan(@Nonnull final Buffer buffer) {
+		this.buffer = buffer;
+		pos = 0;
+		end = buffer.length();
+		op = OP_UNKNOWN;
+		guildId = 0;
+		position = 0;
+		time = 0;
+		hasGuildId = false;
+		hasPosition = false;
+		hasTime = false;
+		try {
+			return scanRoot();
+		} finally {
+			this.buffer = null;
+		}
+	}
+
+	private boolean scanRoot() {
+		if (!expect('{')) {
+			return false;
+		}
+		if (peek() == '}') {
+			pos++;
+			return true;
+		}
+		while (true) {
+			final var keyStart = readKey();
+			if (keyStart < 0) {
+				return false;
+			}
+			final var keyEnd = pos - 1;
+			if (!expect(':')) {
+				return false;
+			}
+			skipWhitespace();
+			final boolean ok;
+			if (matches(keyStart, keyEnd, KEY_OP)) {
+				ok = readOp();
+			} else if (matches(keyStart, keyEnd, KEY_GUILD_ID)) {
+				ok = readGuildId();
+			} else if (matches(keyStart, keyEnd, KEY_STATE)) {
+				ok = scanState();
+			} else {
+				ok = skipValue();
+			}
+			if (!ok) {
+				return false;
+			}
+			skipWhitespace();
+			if (pos >= end) {
+				return false;
+			}
+			final var next = buffer.getByte(pos++);
+			if (next == '}') {
+				return true;
+			}
+			if (next != ',') {
+				return false;
+			}
+		}
+	}
+
+	private boolean scanState() {
+		if (!expect('{')) {
+			return false;
+		}
+		if (peek() == '}') {
+			pos++;
+			return true;
+		}
+		while (true) {
+			final var keyStart = readKey();
+			if (keyStart < 0) {
+				return false;
+			}
+			final var keyEnd = pos - 1;
+			if (!expect(':')) {
+				return false;
+			}
+			skipWhitespace();
+			if (matches(keyStart, keyEnd, KEY_POSITION)) {
+				if (!readLong()) {
+					return false;
+				}
+				position = parsed;
+				hasPosition = true;
+			} else if (matches(keyStart, keyEnd, KEY_TIME)) {
+				if (!readLong()) {
+					return false;
+				}
+				time = parsed;
+				hasTime = true;
+			} else if (!skipValue()) {
+				return false;
+			}
+			skipWhitespace();
+			if (pos >= end) {
+				return false;
+			}
+			final var next = buffer.getByte(pos++);
+			if (next == '}') {
+				return true;
+			}
+			if (next != ',') {
+				return false;
+			}
+		}
+	}
+
+	// returns the index of the first key byte and leaves pos just after the closing quote, or -1 on escapes/errors.
+	private int readKey() {
+		if (!expect('"')) {
+			return -1;
+		}
+		final var start = pos;
+		while (pos < end) {
+			final var b = buffer.getByte(pos++);
+			if (b == '"') {
+				return start;
+			}
+			if (b == '\\') {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private boolean readOp() {
+		if (peek() != '"') {
+			return false;
+		}
+		final var start = readKey();
+		if (start < 0) {
+			return false;
+		}
+		final var stop = pos - 1;
+		if (matches(start, stop, OP_NAME_PLAYER_UPDATE)) {
+			op = OP_PLAYER_UPDATE;
+		} else if (matches(start, stop, OP_NAME_STATS)) {
+			op = OP_STATS;
+		} else if (matches(start, stop, OP_NAME_EVENT)) {
+			op = OP_EVENT;
+		} else {
+			op = OP_UNKNOWN;
+		}
+		return true;
+	}
+
+	// guild ids are unsigned 64-bit snowflakes sent as strings.
+	private boolean readGuildId() {
+		if (!expect('"')) {
+			return false;
+		}
+		var value = 0L;
+		var digits = 0;
+		while (pos < end) {
+			final var b = buffer.getByte(pos++);
+			if (b == '"') {
+				if (digits == 0) {
+					return false;
+				}
+				guildId = value;
+				hasGuildId = true;
+				return true;
+			}
+			if (b < '0' || b > '9' || ++digits > 20) {
+				return false;
+			}
+			value = value * 10 + (b - '0');
+		}
+		return false;
+	}
+
+	private boolean readLong() {
+		var negative = false;
+		if (peek() == '-') {
+			negative = true;
+			pos++;
+		}
+		var value = 0L;
+		var digits = 0;
+		while (pos < end) {
+			final var b = buffer.getByte(pos);
+			if (b < '0' || b > '9') {
+				break;
+			}
+			if (++digits > 18) {
+				return false;
+			}
+			value = value * 10 + (b - '0');
+			pos++;
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (pos < end) {
+			final var b = buffer.getByte(pos);
+			if (b == '.' || b == 'e' || b == 'E') {
+				return false;
+			}
+		}
+		parsed = negative ? -value : value;
+		return true;
+	}
+
+	private boolean skipValue() {
+		if (pos >= end) {
+			return false;
+		}
+		final var first = buffer.getByte(pos);
+		if (first == '"') {
+			pos++;
+			return skipString();
+		}
+		if (first == '{' || first == '[') {
+			return skipContainer();
+		}
+		// numbers, booleans and null all end at a structural character or whitespace.
+		final var start = pos;
+		while (pos < end) {
+			final var b = buffer.getByte(pos);
+			if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+				break;
+			}
+			pos++;
+		}
+		return pos > start;
+	}
+
+	private boolean skipString() {
+		while (pos < end) {
+			final var b = buffer.getByte(pos++);
+			if (b == '\\') {
+				pos++;
+			} else if (b == '"') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean skipContainer() {
+		var depth = 0;
+		while (pos < end) {
+			final var b = buffer.getByte(pos++);
+			if (b == '"') {
+				if (!skipString()) {
+					return false;
+				}
+			} else if (b == '{' || b == '[') {
+				depth++;
+			} else if (b == '}' || b == ']') {
+				if (--depth == 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean matches(final int start, final int stop, @Nonnull final byte[] expected) {
+		if (stop - start != expected.length) {
+			return false;
+		}
+		for (var i = 0; i < expected.length; i++) {
+			if (buffer.getByte(start + i) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean expect(final char c) {
+		skipWhitespace();
+		if (pos < end && buffer.getByte(pos) == c) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	private int peek() {
+		skipWhitespace();
+		return pos < end ? buffer.getByte(pos) : -1;
+	}
+
+	private void skipWhitespace() {
+		while (pos < end && isWhitespace(buffer.getByte(pos))) {
+			pos++;
+		}
+	}
+
+	private static boolean isWhitespace(final byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+	}
+
+	@Nonnull
+	private static byte[] bytes(@Nonnull final String str) {
+		return str.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.samophis.lavaclient.entities.AudioLoadResult;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+Caches load results by normalised identifier. Searches and direct identifiers get their own TTL, NO_MATCHES and
+LOAD_FAILED results are only kept for a short negative TTL, and failed requests aren't kept at all. Concurrent lookups
+of the same identifier share the one in-flight request, which Caffeine counts as a hit.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class LoadResultCache {
+	private final AsyncCache<String, AudioLoadResult> cache;
+	private final long searchTtl;
+	private final long urlTtl;
+	private final long negativeTtl;
+
+	// TTLs are in milliseconds.
+	public LoadResultCache(@Nonnegative final long maximumSize, @Nonnegative final long searchTtl,
+	                       @Nonnegative final long urlTtl, @Nonnegative final long negativeTtl) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximum size must be larger than 0");
+		}
+		if (searchTtl < 0 || urlTtl < 0 || negativeTtl < 0) {
+			throw new IllegalArgumentException("ttls cannot be negative");
+		}
+		this.searchTtl = TimeUnit.MILLISECONDS.toNanos(searchTtl);
+		this.urlTtl = TimeUnit.MILLISECONDS.toNanos(urlTtl);
+		this.negativeTtl = TimeUnit.MILLISECONDS.toNanos(negativeTtl);
+		cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new Expiry<String, AudioLoadResult>() {
+					@Override
+					public long expireAfterCreate(@Nonnull final String key, @Nonnull final AudioLoadResult value,
+					                              final long currentTime) {
+						return ttl(key, value);
+					}
+
+					@Override
+					public long expireAfterUpdate(@Nonnull final String key, @Nonnull final AudioLoadResult value,
+					                              final long currentTime, final long currentDuration) {
+						return ttl(key, value);
+					}
+
+					@Override
+					public long expireAfterRead(@Nonnull final String key, @Nonnull final AudioLoadResult value,
+					                            final long currentTime, final long currentDuration) {
+						return currentDuration;
+					}
+				})
+				// maintenance is cheap, keep it on the calling thread rather than the common pool.
+				.executor(Runnable::run)
+				.recordStats()
+				.buildAsync();
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	public CompletableFuture<AudioLoadResult> get(@Nonnull final String identifier,
+	                                              @Nonnull final Function<String, CompletionStage<AudioLoadResult>> loader) {
+		return cache.get(normalise(identifier), (key, executor) -> loader.apply(identifier).toCompletableFuture());
+	}
+
+	public void invalidate(@Nonnull final String identifier) {
+		cache.synchronous().invalidate(normalise(identifier));
+	}
+
+	public void invalidateAll() {
+		cache.synchronous().invalidateAll();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long size() {
+		return cache.synchronous().estimatedSize();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long hitCount() {
+		return cache.synchronous().stats().hitCount();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long missCount() {
+		return cache.synchronous().stats().missCount();
+	}
+
+	@CheckReturnValue
+	public double hitRate() {
+		return cache.synchronous().stats().hitRate();
+	}
+
+	// every hit, including joining a request that was still in flight, is a request the node never saw.
+	@CheckReturnValue
+	@Nonnegative
+	public long savedRequests() {
+		return hitCount();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long evictionCount() {
+		return cache.synchronous().stats().evictionCount();
+	}
+
+	private long ttl(@Nonnull final String key, @Nonnull final AudioLoadResult value) {
+		switch (value.type()) {
+			case NO_MATCHES:
+			case LOAD_FAILED:
+				return negativeTtl;
+			default:
+				return isSearch(key) ? searchTtl : urlTtl;
+		}
+	}
+
+	// searches ignore case and surrounding/repeated whitespace, anything else (urls, ids) is only trimmed.
+	@CheckReturnValue
+	@Nonnull
+	static String normalise(@Nonnull final String identifier) {
+		final var trimmed = identifier.trim();
+		if (!isSearch(trimmed)) {
+			return trimmed;
+		}
+		final var colon = trimmed.indexOf(':');
+		final var query = trimmed.substring(colon + 1).trim().replaceAll("\\s+", " ");
+		return trimmed.substring(0, colon + 1).toLowerCase(Locale.ROOT) + query.toLowerCase(Locale.ROOT);
+	}
+
+	// ytsearch:, scsearch: and friends.
+	static boolean isSearch(@Nonnull final String identifier) {
+		final var colon = identifier.indexOf(':');
+		return colon > 6 && identifier.regionMatches(true, colon - 6, "search", 0, 6)
+				&& identifier.chars().limit(colon).allMatch(Character::isLetter);
+	}
+}
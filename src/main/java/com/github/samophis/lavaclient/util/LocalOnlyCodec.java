@@ -17,47 +17,48 @@ package com.github.samophis.lavaclient.util;
 
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
-import io.vertx.core.json.JsonObject;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.experimental.Accessors;
 
+import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 
-/*
-Credit to catnip development team: https://github.com/mewna/catnip/blob/master/src/main/java/com/mewna/catnip/util/JsonPojoCodec.java
- */
-
-@Getter
-@Setter
+// for messages that carry callbacks or other state that only means something inside this JVM.
 @Accessors(fluent = true)
-public class JsonPojoCodec<T> implements MessageCodec<T, T> {
+public final class LocalOnlyCodec<T> implements MessageCodec<T, T> {
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
 	private final Class<T> type;
-	private final byte systemCodecID;
+	@Getter(onMethod_ = {@CheckReturnValue, @Nonnull})
 	private final String name;
 
-	public JsonPojoCodec(@Nonnull final Class<T> type) {
+	public LocalOnlyCodec(@Nonnull final Class<T> type) {
 		this.type = type;
-		systemCodecID = -1;
-		name = "JsonPojoCodec" + type.getName();
+		name = "lavaclient-local:" + type.getName();
 	}
 
 	@Override
 	public void encodeToWire(final Buffer buffer, final T t) {
-		final byte[] data = JsonObject.mapFrom(t).encode().getBytes();
-		buffer.appendInt(data.length);
-		buffer.appendBytes(data);
+		throw unsupported();
 	}
 
 	@Override
 	public T decodeFromWire(final int pos, final Buffer buffer) {
-		final int length = buffer.getInt(pos);
-		return new JsonObject(buffer.getString(pos + 4, pos + 4 + length))
-				.mapTo(type);
+		throw unsupported();
 	}
 
 	@Override
 	public T transform(final T t) {
 		return t;
 	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	@Nonnull
+	private UnsupportedOperationException unsupported() {
+		return new UnsupportedOperationException(type.getName() + " can't cross a clustered event bus, "
+				+ "it's only meaningful within the JVM that created it!");
+	}
 }
@@ -0,0 +1,103 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.function.Function;
+
+/*
+Caffeine (W-TinyLFU) cache of decoded tracks keyed by their base64 form. Only clones ever leave the cache so that
+callers can't mutate each other's tracks.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class TrackCache {
+	private final Cache<String, AudioTrack> cache;
+
+	private TrackCache(@Nonnull final Cache<String, AudioTrack> cache) {
+		this.cache = cache;
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	public static TrackCache bySize(@Nonnegative final long maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximum size must be larger than 0");
+		}
+		return new TrackCache(Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.recordStats()
+				.build());
+	}
+
+	// weight is the length of the encoded track, which is a decent stand-in for the size of the decoded one.
+	@CheckReturnValue
+	@Nonnull
+	public static TrackCache byWeight(@Nonnegative final long maximumWeight) {
+		if (maximumWeight <= 0) {
+			throw new IllegalArgumentException("maximum weight must be larger than 0");
+		}
+		return new TrackCache(Caffeine.newBuilder()
+				.maximumWeight(maximumWeight)
+				.weigher((String data, AudioTrack track) -> data.length())
+				.recordStats()
+				.build());
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	AudioTrack get(@Nonnull final String data, @Nonnull final Function<String, AudioTrack> decoder) {
+		return cache.get(data, decoder).makeClone();
+	}
+
+	void put(@Nonnull final String data, @Nonnull final AudioTrack track) {
+		cache.put(data, track.makeClone());
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long hitCount() {
+		return cache.stats().hitCount();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long missCount() {
+		return cache.stats().missCount();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public long evictionCount() {
+		return cache.stats().evictionCount();
+	}
+}
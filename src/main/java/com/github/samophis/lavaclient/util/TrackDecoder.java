@@ -0,0 +1,200 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import com.github.samophis.lavaclient.entities.TrackInfo;
+import com.github.samophis.lavaclient.entities.internal.TrackInfoImpl;
+import com.github.samophis.lavaclient.exceptions.LocalTrackException;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+Reads the common part of lavaplayer's track message without DefaultAudioPlayerManager or any source manager:
+
+  int     header (flags in the top two bits, message size in the rest)
+  byte    version (only present if the versioned flag is set, otherwise version 1)
+  utf     title, author
+  long    length
+  utf     identifier
+  boolean isStream
+  utf?    uri (version 2 onwards, prefixed with a presence flag)
+  utf     source name
+  ...     source specific details, skipped
+  long    position (always the last eight bytes of the message)
+
+Strings are DataOutput#writeUTF, i.e. an unsigned short length followed by modified UTF-8.
+ */
+
+@SuppressWarnings("WeakerAccess")
+public final class TrackDecoder {
+	private static final int TRACK_INFO_VERSIONED = 1;
+	private static final int MAX_RETAINED = 16384;
+	private static final ThreadLocal<byte[]> BYTES = ThreadLocal.withInitial(() -> new byte[1024]);
+	private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[256]);
+
+	private TrackDecoder() {}
+
+	@CheckReturnValue
+	@Nonnull
+	public static TrackInfo decode(@Nonnull final String encoded) {
+		final var needed = (encoded.length() + 3) / 4 * 3;
+		var bytes = BYTES.get();
+		if (bytes.length < needed) {
+			bytes = new byte[needed];
+			if (needed <= MAX_RETAINED) {
+				BYTES.set(bytes);
+			}
+		}
+		final int size;
+		try {
+			size = Base64.getDecoder().decode(encoded.getBytes(StandardCharsets.ISO_8859_1), bytes);
+		} catch (final IllegalArgumentException exc) {
+			throw new LocalTrackException(exc);
+		}
+		return new Reader(bytes, size).read(encoded);
+	}
+
+	// only reads the header, for when the rest of the info came from elsewhere (e.g. lavalink's /decodetracks).
+	@CheckReturnValue
+	public static int version(@Nonnull final String encoded) {
+		if (encoded.length() < 8) {
+			throw malformed("too short for a header");
+		}
+		final byte[] header;
+		try {
+			header = Base64.getDecoder().decode(encoded.substring(0, 8));
+		} catch (final IllegalArgumentException exc) {
+			throw new LocalTrackException(exc);
+		}
+		final var flags = (header[0] & 0xFF) >>> 6;
+		return (flags & TRACK_INFO_VERSIONED) != 0 ? header[4] & 0xFF : 1;
+	}
+
+	@Nonnull
+	private static LocalTrackException malformed(@Nonnull final String reason) {
+		return new LocalTrackException(new IOException("malformed track message: " + reason));
+	}
+
+	private static final class Reader {
+		private final byte[] bytes;
+		private int pos;
+		private int end;
+
+		private Reader(@Nonnull final byte[] bytes, final int end) {
+			this.bytes = bytes;
+			this.end = end;
+		}
+
+		@Nonnull
+		private TrackInfo read(@Nonnull final String encoded) {
+			final var header = readInt();
+			final var flags = header >>> 30;
+			final var messageSize = header & 0x3FFFFFFF;
+			if (messageSize > end - pos || messageSize < Long.BYTES) {
+				throw malformed("size " + messageSize + " doesn't fit in " + (end - pos) + " bytes");
+			}
+			end = pos + messageSize;
+			final var version = (flags & TRACK_INFO_VERSIONED) != 0 ? readByte() & 0xFF : 1;
+			final var title = readUtf();
+			final var author = readUtf();
+			final var length = readLong();
+			final var identifier = readUtf();
+			final var stream = readBoolean();
+			final var uri = version >= 2 ? readNullableUtf() : null;
+			final var source = readUtf();
+			if (end - pos < Long.BYTES) {
+				throw malformed("no room left for the position");
+			}
+			pos = end - Long.BYTES;
+			final var position = readLong();
+			return new TrackInfoImpl(encoded, version, title, author, length, identifier, stream, uri, source,
+					position);
+		}
+
+		private void require(final int count) {
+			if (end - pos < count) {
+				throw malformed("truncated at byte " + pos);
+			}
+		}
+
+		private byte readByte() {
+			require(1);
+			return bytes[pos++];
+		}
+
+		private boolean readBoolean() {
+			return readByte() != 0;
+		}
+
+		private int readInt() {
+			require(Integer.BYTES);
+			final var value = (bytes[pos] & 0xFF) << 24 | (bytes[pos + 1] & 0xFF) << 16
+					| (bytes[pos + 2] & 0xFF) << 8 | bytes[pos + 3] & 0xFF;
+			pos += Integer.BYTES;
+			return value;
+		}
+
+		private long readLong() {
+			final var high = readInt() & 0xFFFFFFFFL;
+			final var low = readInt() & 0xFFFFFFFFL;
+			return high << 32 | low;
+		}
+
+		@Nullable
+		private String readNullableUtf() {
+			return readBoolean() ? readUtf() : null;
+		}
+
+		// modified UTF-8 never needs more chars than bytes, and surrogate pairs come out as two 3-byte units.
+		@Nonnull
+		private String readUtf() {
+			require(2);
+			final var length = (bytes[pos] & 0xFF) << 8 | bytes[pos + 1] & 0xFF;
+			pos += 2;
+			require(length);
+			var chars = CHARS.get();
+			if (chars.length < length) {
+				chars = new char[length];
+				if (length <= MAX_RETAINED) {
+					CHARS.set(chars);
+				}
+			}
+			final var stop = pos + length;
+			var count = 0;
+			while (pos < stop) {
+				final var first = bytes[pos] & 0xFF;
+				if (first < 0x80) {
+					chars[count++] = (char) first;
+					pos++;
+				} else if ((first & 0xE0) == 0xC0 && pos + 1 < stop) {
+					chars[count++] = (char) ((first & 0x1F) << 6 | bytes[pos + 1] & 0x3F);
+					pos += 2;
+				} else if ((first & 0xF0) == 0xE0 && pos + 2 < stop) {
+					chars[count++] = (char) ((first & 0x0F) << 12 | (bytes[pos + 1] & 0x3F) << 6 | bytes[pos + 2] & 0x3F);
+					pos += 3;
+				} else {
+					throw malformed("bad modified UTF-8 at byte " + pos);
+				}
+			}
+			return new String(chars, 0, count);
+		}
+	}
+}
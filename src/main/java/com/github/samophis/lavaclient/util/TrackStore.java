@@ -0,0 +1,417 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import com.github.samophis.lavaclient.entities.AudioLoadResult;
+import com.github.samophis.lavaclient.entities.LoadType;
+import com.github.samophis.lavaclient.entities.internal.AudioLoadResultImpl;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/*
+Persistent identifier -> load result store, so a restarted client can answer popular loads without asking a node.
+Records are appended to a single memory-mapped segment file and found through an in-memory index of offsets, which is
+rebuilt by scanning the file on open. Every record carries its own expiry (wall clock, as it has to survive restarts)
+and a CRC, so a record torn by a crash simply ends the scan. Superseded, invalidated and expired records stay in the
+file until it fills up, at which point the live ones are compacted into a fresh file that is then moved over the old
+one. Only results with tracks are stored, negative results are left to the in-memory cache. Every method takes the same
+lock and a compaction holds it while copying, so callers on an event loop should go through a worker.
+
+Record layout: int length, int crc of what follows, long expiresAt, byte load type (-1 for an invalidation),
+byte playlist, int selectedTrack (-1 for none), key, playlistName and then an int count of encoded tracks. Strings are
+written as a length-prefixed UTF-8 run, -1 for null.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class TrackStore implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TrackStore.class);
+	private static final int MAGIC = 0x4C435453;
+	private static final byte VERSION = 1;
+	private static final int FILE_HEADER_BYTES = Integer.BYTES + 1;
+	private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+	private static final byte INVALIDATED = -1;
+	private static final LoadType[] LOAD_TYPES = LoadType.values();
+	private final Path path;
+	private final int capacity;
+	private final long searchTtl;
+	private final long urlTtl;
+	// offsets are never 0 thanks to the file header, so trove's 0 default doubles as "absent".
+	private TObjectIntHashMap<String> index = new TObjectIntHashMap<>();
+	private MappedByteBuffer segment;
+	private int position;
+	private long liveBytes;
+	private long hits;
+	private long misses;
+	private long compactions;
+
+	private TrackStore(@Nonnull final Path path, @Nonnegative final int capacity, @Nonnegative final long searchTtl,
+	                   @Nonnegative final long urlTtl) {
+		this.path = path;
+		this.capacity = capacity;
+		this.searchTtl = searchTtl;
+		this.urlTtl = urlTtl;
+	}
+
+	// TTLs are in milliseconds, capacity is the size of the mapped segment in bytes.
+	@CheckReturnValue
+	@Nonnull
+	public static TrackStore open(@Nonnull final Path path, @Nonnegative final int capacity,
+	                              @Nonnegative final long searchTtl, @Nonnegative final long urlTtl) throws IOException {
+		if (capacity <= FILE_HEADER_BYTES + RECORD_HEADER_BYTES) {
+			throw new IllegalArgumentException("capacity is too small to hold any records");
+		}
+		if (searchTtl < 0 || urlTtl < 0) {
+			throw new IllegalArgumentException("ttls cannot be negative");
+		}
+		final var store = new TrackStore(path, capacity, searchTtl, urlTtl);
+		store.load();
+		return store;
+	}
+
+	@CheckReturnValue
+	@Nullable
+	public synchronized AudioLoadResult get(@Nonnull final String identifier) {
+		final var key = LoadResultCache.normalise(identifier);
+		final var offset = index.get(key);
+		if (offset == 0) {
+			misses++;
+			return null;
+		}
+		final var record = record(segment, offset);
+		if (record.getLong() <= System.currentTimeMillis()) {
+			index.remove(key);
+			liveBytes -= recordSize(segment, offset);
+			misses++;
+			return null;
+		}
+		hits++;
+		final var type = LOAD_TYPES[record.get()];
+		final var playlist = record.get() != 0;
+		final var selected = record.getInt();
+		readString(record);
+		final var playlistName = readString(record);
+		final var count = record.getInt();
+		final var tracks = new ArrayList<String>(count);
+		for (var i = 0; i < count; i++) {
+			tracks.add(readString(record));
+		}
+		return new AudioLoadResultImpl(Collections.unmodifiableList(tracks), type, playlistName,
+				selected < 0 ? null : selected, playlist);
+	}
+
+	public synchronized void put(@Nonnull final String identifier, @Nonnull final AudioLoadResult result) {
+		switch (result.type()) {
+			case TRACK_LOADED:
+			case PLAYLIST_LOADED:
+			case SEARCH_RESULT:
+				break;
+			default:
+				return;
+		}
+		final var key = LoadResultCache.normalise(identifier);
+		final var ttl = LoadResultCache.isSearch(key) ? searchTtl : urlTtl;
+		if (ttl == 0) {
+			return;
+		}
+		final var selected = result.selectedTrack();
+		try {
+			final var bytes = new ByteArrayOutputStream(256);
+			final var out = new DataOutputStream(bytes);
+			out.writeLong(System.currentTimeMillis() + ttl);
+			out.writeByte(result.type().ordinal());
+			out.writeByte(result.playlist() ? 1 : 0);
+			out.writeInt(selected == null ? -1 : selected);
+			writeString(out, key);
+			writeString(out, result.playlistName());
+			final var tracks = result.encodedTracks();
+			out.writeInt(tracks.size());
+			for (final var track : tracks) {
+				writeString(out, track);
+			}
+			append(key, bytes.toByteArray(), false);
+		} catch (final IOException exc) {
+			LOGGER.warn("couldn't store load result for identifier: {}", identifier, exc);
+		}
+	}
+
+	// written to the file too, so the old result doesn't come back after a restart.
+	public synchronized void invalidate(@Nonnull final String identifier) {
+		final var key = LoadResultCache.normalise(identifier);
+		if (!index.containsKey(key)) {
+			return;
+		}
+		try {
+			final var bytes = new ByteArrayOutputStream(64);
+			final var out = new DataOutputStream(bytes);
+			out.writeLong(0);
+			out.writeByte(INVALIDATED);
+			out.writeByte(0);
+			out.writeInt(-1);
+			writeString(out, key);
+			append(key, bytes.toByteArray(), true);
+		} catch (final IOException exc) {
+			LOGGER.warn("couldn't invalidate identifier: {}", identifier, exc);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		segment.force();
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized int size() {
+		return index.size();
+	}
+
+	// bytes of the segment in use, including records that are waiting to be compacted away.
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized int usedBytes() {
+		return position;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized long liveBytes() {
+		return liveBytes;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized long hitCount() {
+		return hits;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized long missCount() {
+		return misses;
+	}
+
+	// every hit is a load no node had to serve.
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized long savedRequests() {
+		return hits;
+	}
+
+	@CheckReturnValue
+	@Nonnegative
+	public synchronized long compactionCount() {
+		return compactions;
+	}
+
+	private void load() throws IOException {
+		segment = map(path, capacity);
+		if (segment.getInt(0) != MAGIC || segment.get(Integer.BYTES) != VERSION) {
+			if (segment.getInt(0) != 0) {
+				LOGGER.warn("track store: {} has an unknown format, starting over", path);
+			}
+			writeHeader(segment);
+			terminate(segment, FILE_HEADER_BYTES);
+			position = FILE_HEADER_BYTES;
+			return;
+		}
+		final var now = System.currentTimeMillis();
+		var offset = FILE_HEADER_BYTES;
+		while (offset + RECORD_HEADER_BYTES <= capacity) {
+			final var length = segment.getInt(offset);
+			if (length <= 0 || length > capacity - offset - RECORD_HEADER_BYTES
+					|| crc(segment, offset + RECORD_HEADER_BYTES, length) != segment.getInt(offset + Integer.BYTES)) {
+				break;
+			}
+			final var record = record(segment, offset);
+			final var expiresAt = record.getLong();
+			final var type = record.get();
+			record.get();
+			record.getInt();
+			final var key = readString(record);
+			final var previous = index.remove(key);
+			if (previous != 0) {
+				liveBytes -= recordSize(segment, previous);
+			}
+			if (type != INVALIDATED && expiresAt > now) {
+				index.put(key, offset);
+				liveBytes += RECORD_HEADER_BYTES + length;
+			}
+			offset += RECORD_HEADER_BYTES + length;
+		}
+		position = offset;
+		terminate(segment, position);
+		LOGGER.info("track store: {} opened with {} results", path, index.size());
+	}
+
+	private void append(@Nonnull final String key, @Nonnull final byte[] body, final boolean invalidation)
+			throws IOException {
+		final var size = RECORD_HEADER_BYTES + body.length;
+		if (size > capacity - FILE_HEADER_BYTES) {
+			return;
+		}
+		if (position + size > capacity) {
+			compact();
+			if (position + size > capacity) {
+				LOGGER.debug("track store: {} is full of live results, not storing {}", path, key);
+				return;
+			}
+		}
+		final var crc = new CRC32();
+		crc.update(body);
+		segment.putInt(position, body.length);
+		segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+		final var view = segment.duplicate();
+		view.position(position + RECORD_HEADER_BYTES);
+		view.put(body);
+		terminate(segment, position + size);
+		final var previous = invalidation ? index.remove(key) : index.put(key, position);
+		if (previous != 0) {
+			liveBytes -= recordSize(segment, previous);
+		}
+		if (!invalidation) {
+			liveBytes += size;
+		}
+		position += size;
+	}
+
+	// copies every live, unexpired record into a fresh file and swaps it in.
+	private void compact() throws IOException {
+		final var started = System.nanoTime();
+		final var temp = path.resolveSibling(path.getFileName() + ".compact");
+		Files.deleteIfExists(temp);
+		final var target = map(temp, capacity);
+		writeHeader(target);
+		final var now = System.currentTimeMillis();
+		final var compacted = new TObjectIntHashMap<String>(index.size());
+		var offset = FILE_HEADER_BYTES;
+		for (final var it = index.iterator(); it.hasNext(); ) {
+			it.advance();
+			final var from = it.value();
+			if (segment.getLong(from + RECORD_HEADER_BYTES) <= now) {
+				continue;
+			}
+			final var size = recordSize(segment, from);
+			final var source = segment.duplicate();
+			source.limit(from + size);
+			source.position(from);
+			final var destination = target.duplicate();
+			destination.position(offset);
+			destination.put(source);
+			compacted.put(it.key(), offset);
+			offset += size;
+		}
+		terminate(target, offset);
+		target.force();
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		segment = target;
+		index = compacted;
+		position = offset;
+		liveBytes = offset - FILE_HEADER_BYTES;
+		compactions++;
+		LOGGER.debug("track store: {} compacted to {} results in {}ms", path, index.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+	}
+
+	@CheckReturnValue
+	@Nonnull
+	private static MappedByteBuffer map(@Nonnull final Path path, @Nonnegative final int capacity) throws IOException {
+		// the mapping stays valid once the channel is closed.
+		try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		}
+	}
+
+	private static void writeHeader(@Nonnull final ByteBuffer buffer) {
+		buffer.putInt(0, MAGIC);
+		buffer.put(Integer.BYTES, VERSION);
+	}
+
+	// a zero length ends the scan, so whatever an older file left behind past this point is never read.
+	private void terminate(@Nonnull final ByteBuffer buffer, final int offset) {
+		if (offset + Integer.BYTES <= capacity) {
+			buffer.putInt(offset, 0);
+		}
+	}
+
+	// positioned just past the record header.
+	@CheckReturnValue
+	@Nonnull
+	private static ByteBuffer record(@Nonnull final ByteBuffer buffer, final int offset) {
+		final var view = buffer.duplicate();
+		view.position(offset + RECORD_HEADER_BYTES);
+		return view;
+	}
+
+	@CheckReturnValue
+	private static int recordSize(@Nonnull final ByteBuffer buffer, final int offset) {
+		return RECORD_HEADER_BYTES + buffer.getInt(offset);
+	}
+
+	@CheckReturnValue
+	private static int crc(@Nonnull final ByteBuffer buffer, final int offset, final int length) {
+		final var view = buffer.duplicate();
+		view.limit(offset + length);
+		view.position(offset);
+		final var crc = new CRC32();
+		crc.update(view);
+		return (int) crc.getValue();
+	}
+
+	private static void writeString(@Nonnull final DataOutputStream out, @Nullable final String str)
+			throws IOException {
+		if (str == null) {
+			out.writeInt(-1);
+			return;
+		}
+		final var bytes = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	@Nullable
+	private static String readString(@Nonnull final ByteBuffer buffer) {
+		final var length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		final var bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,80 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityBuilderTest {
+	private static final String GUILD_ID = "290834092834092834";
+	private static final String AWKWARD = "quote\" backslash\\ newline\n tab\t cr\r bell\u0007 nul\u0000 "
+			+ "unicode\u00e9\u6f22";
+
+	@Test
+	void writesExactFrames() {
+		assertEquals("{\"op\":\"stop\",\"guildId\":\"1\"}", EntityBuilder.encodeStopPayload("1"));
+		assertEquals("{\"op\":\"pause\",\"guildId\":\"1\",\"pause\":true}",
+				EntityBuilder.encodePausePayload("1", true));
+		assertEquals("{\"op\":\"seek\",\"guildId\":\"1\",\"position\":42}", EntityBuilder.encodeSeekPayload("1", 42));
+		assertEquals("{\"op\":\"play\",\"guildId\":\"1\",\"track\":\"abc\",\"noReplace\":false,\"startTime\":0}",
+				EntityBuilder.encodePlayPayload("1", "abc", 0, 0, false));
+	}
+
+	@Test
+	void matchesCreatePayloads() {
+		assertEquals(EntityBuilder.createDestroyPayload(GUILD_ID),
+				new JsonObject(EntityBuilder.encodeDestroyPayload(GUILD_ID)));
+		assertEquals(EntityBuilder.createStopPayload(GUILD_ID),
+				new JsonObject(EntityBuilder.encodeStopPayload(GUILD_ID)));
+		assertEquals(EntityBuilder.createPausePayload(GUILD_ID, false),
+				new JsonObject(EntityBuilder.encodePausePayload(GUILD_ID, false)));
+		assertEquals(EntityBuilder.createSeekPayload(GUILD_ID, Long.MAX_VALUE),
+				new JsonObject(EntityBuilder.encodeSeekPayload(GUILD_ID, Long.MAX_VALUE)));
+		assertEquals(EntityBuilder.createVolumePayload(GUILD_ID, 150),
+				new JsonObject(EntityBuilder.encodeVolumePayload(GUILD_ID, 150)));
+		assertEquals(EntityBuilder.createVoiceUpdatePayload(GUILD_ID, "session", "token", "endpoint:443"),
+				new JsonObject(EntityBuilder.encodeVoiceUpdatePayload(GUILD_ID, "session", "token", "endpoint:443")));
+		assertEquals(EntityBuilder.createPlayPayload(GUILD_ID, "QAAAjQIA", 1000, 2000, true),
+				new JsonObject(EntityBuilder.encodePlayPayload(GUILD_ID, "QAAAjQIA", 1000, 2000, true)));
+	}
+
+	@Test
+	void leavesOutZeroEndTime() {
+		final var play = new JsonObject(EntityBuilder.encodePlayPayload(GUILD_ID, "QAAAjQIA", 0, 0, false));
+		assertFalse(play.containsKey("endTime"));
+		assertEquals(EntityBuilder.createPlayPayload(GUILD_ID, "QAAAjQIA", 0, 0, false), play);
+	}
+
+	@Test
+	void escapesStrings() {
+		final var update = new JsonObject(EntityBuilder.encodeVoiceUpdatePayload(GUILD_ID, AWKWARD, AWKWARD, AWKWARD));
+		assertEquals(AWKWARD, update.getString("sessionId"));
+		assertEquals(AWKWARD, update.getJsonObject("event").getString("token"));
+		assertEquals(AWKWARD, update.getJsonObject("event").getString("endpoint"));
+		assertEquals(EntityBuilder.createVoiceUpdatePayload(GUILD_ID, AWKWARD, AWKWARD, AWKWARD), update);
+	}
+
+	// the per-thread builder is dropped after a huge frame, which mustn't affect that frame or the ones after it.
+	@Test
+	void survivesOversizedFrames() {
+		final var track = "A".repeat(40000);
+		final var play = new JsonObject(EntityBuilder.encodePlayPayload(GUILD_ID, track, 0, 0, false));
+		assertEquals(track, play.getString("track"));
+		assertEquals("{\"op\":\"stop\",\"guildId\":\"1\"}", EntityBuilder.encodeStopPayload("1"));
+	}
+}
@@ -0,0 +1,122 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameScannerTest {
+	private final FrameScanner scanner = new FrameScanner();
+
+	@Test
+	void scansPlayerUpdate() {
+		final var frame = "{\"op\":\"playerUpdate\",\"guildId\":\"18446744073709551615\","
+				+ "\"state\":{\"time\":1500000000000,\"position\":60000}}";
+		assertTrue(scanner.scan(Buffer.buffer(frame)));
+		assertEquals(FrameScanner.OP_PLAYER_UPDATE, scanner.op());
+		assertTrue(scanner.hasGuildId());
+		assertEquals("18446744073709551615", Long.toUnsignedString(scanner.guildId()));
+		assertTrue(scanner.hasPosition());
+		assertEquals(60000L, scanner.position());
+		assertTrue(scanner.hasTime());
+		assertEquals(1500000000000L, scanner.time());
+	}
+
+	// whatever JsonObject writes has to come back out the same, whatever order the fields are in.
+	@Test
+	void matchesJsonObjectEncoding() {
+		final var json = new JsonObject()
+				.put("state", new JsonObject().put("position", 1234L).put("time", 5678L).put("extra", "x"))
+				.put("guildId", "290834092834092834")
+				.put("op", "playerUpdate");
+		assertTrue(scanner.scan(json.toBuffer()));
+		assertEquals(FrameScanner.OP_PLAYER_UPDATE, scanner.op());
+		assertEquals(290834092834092834L, scanner.guildId());
+		assertEquals(1234L, scanner.position());
+		assertEquals(5678L, scanner.time());
+		assertTrue(scanner.scan(Buffer.buffer(json.encodePrettily())));
+		assertEquals(1234L, scanner.position());
+	}
+
+	@Test
+	void skipsUnknownFieldsAndNestedValues() {
+		final var frame = "{ \"players\" : 3, \"op\" : \"stats\", \"memory\": {\"used\": 1, \"list\": [1, {\"a\": "
+				+ "\"}\\\"]\"}, [], null]}, \"cpu\": {\"load\": 0.25}, \"ok\": true }";
+		assertTrue(scanner.scan(Buffer.buffer(frame)));
+		assertEquals(FrameScanner.OP_STATS, scanner.op());
+		assertFalse(scanner.hasGuildId());
+		assertFalse(scanner.hasPosition());
+	}
+
+	@Test
+	void recognisesEventsAndUnknownOps() {
+		assertTrue(scanner.scan(Buffer.buffer("{\"op\":\"event\",\"type\":\"TrackEndEvent\",\"guildId\":\"1\"}")));
+		assertEquals(FrameScanner.OP_EVENT, scanner.op());
+		assertEquals(1L, scanner.guildId());
+		assertTrue(scanner.scan(Buffer.buffer("{\"op\":\"somethingNew\"}")));
+		assertEquals(FrameScanner.OP_UNKNOWN, scanner.op());
+		assertTrue(scanner.scan(Buffer.buffer("{}")));
+		assertEquals(FrameScanner.OP_UNKNOWN, scanner.op());
+	}
+
+	@Test
+	void resetsBetweenScans() {
+		final var update = "{\"op\":\"playerUpdate\",\"guildId\":\"7\",\"state\":{\"position\":5}}";
+		assertTrue(scanner.scan(Buffer.buffer(update)));
+		assertTrue(scanner.scan(Buffer.buffer("{\"op\":\"stats\"}")));
+		assertEquals(FrameScanner.OP_STATS, scanner.op());
+		assertFalse(scanner.hasGuildId());
+		assertEquals(0L, scanner.guildId());
+		assertFalse(scanner.hasPosition());
+		assertFalse(scanner.hasTime());
+	}
+
+	@Test
+	void negativePositionsAreRead() {
+		assertTrue(scanner.scan(Buffer.buffer("{\"state\":{\"position\":-20}}")));
+		assertEquals(-20L, scanner.position());
+	}
+
+	// anything the scanner doesn't fully understand has to be reported so the caller falls back to JsonObject.
+	@Test
+	void fallsBackOnUnsupportedShapes() {
+		final var unsupported = new String[] {
+				"",
+				"[]",
+				"{\"op\":\"stats\"",
+				"{\"op\":\"stats\",}",
+				"{\"op\" \"stats\"}",
+				"{\"o\\u0070\":\"stats\"}",
+				"{\"op\":1}",
+				"{\"guildId\":123}",
+				"{\"guildId\":\"\"}",
+				"{\"guildId\":\"12a\"}",
+				"{\"guildId\":\"123456789012345678901\"}",
+				"{\"state\":{\"position\":1.5}}",
+				"{\"state\":{\"position\":1e3}}",
+				"{\"state\":{\"position\":\"1\"}}",
+				"{\"state\":{\"position\":1234567890123456789}}",
+				"{\"state\":[]}",
+				"{\"op\":\"stats\" \"x\":1}",
+		};
+		for (final var frame : unsupported) {
+			assertFalse(scanner.scan(Buffer.buffer(frame)), frame);
+		}
+	}
+}
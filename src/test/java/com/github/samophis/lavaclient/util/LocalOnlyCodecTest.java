@@ -0,0 +1,72 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalOnlyCodecTest {
+	@Test
+	void deliversTheSameInstanceLocally() throws Exception {
+		final var vertx = Vertx.vertx();
+		try {
+			vertx.eventBus().registerDefaultCodec(Callback.class, new LocalOnlyCodec<>(Callback.class));
+			final var received = new CompletableFuture<Callback>();
+			vertx.eventBus().<Callback>consumer("lavaclient.test", msg -> received.complete(msg.body()))
+					.completionHandler(_v -> vertx.eventBus().send("lavaclient.test", new Callback()));
+			final var sent = received.get(5, TimeUnit.SECONDS);
+			assertNotNull(sent);
+			sent.run();
+			assertTrue(sent.ran);
+		} finally {
+			vertx.close();
+		}
+	}
+
+	@Test
+	void passesThroughTransform() {
+		final var codec = new LocalOnlyCodec<>(Callback.class);
+		final var callback = new Callback();
+		assertSame(callback, codec.transform(callback));
+		assertEquals(-1, codec.systemCodecID());
+		assertEquals(Callback.class, codec.type());
+		assertNotEquals(codec.name(), new LocalOnlyCodec<>(Runnable.class).name());
+	}
+
+	@Test
+	void refusesTheWire() {
+		final var codec = new LocalOnlyCodec<>(Callback.class);
+		final var buffer = Buffer.buffer();
+		assertThrows(UnsupportedOperationException.class, () -> codec.encodeToWire(buffer, new Callback()));
+		assertThrows(UnsupportedOperationException.class, () -> codec.decodeFromWire(0, buffer));
+		assertEquals(0, buffer.length());
+	}
+
+	private static final class Callback implements Runnable {
+		private volatile boolean ran;
+
+		@Override
+		public void run() {
+			ran = true;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import com.github.samophis.lavaclient.exceptions.LocalTrackException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackDecoderTest {
+	@Test
+	void decodesVersionedMessages() throws IOException {
+		final var encoded = encode(2, "Title", "Author", 212000, "dQw4w9WgXcQ", false,
+				"https://www.youtube.com/watch?v=dQw4w9WgXcQ", "youtube", new byte[0], 0);
+		final var info = TrackDecoder.decode(encoded);
+		assertEquals(encoded, info.encoded());
+		assertEquals(2, info.version());
+		assertEquals("Title", info.title());
+		assertEquals("Author", info.author());
+		assertEquals(212000L, info.length());
+		assertEquals("dQw4w9WgXcQ", info.identifier());
+		assertFalse(info.stream());
+		assertEquals("https://www.youtube.com/watch?v=dQw4w9WgXcQ", info.uri());
+		assertEquals("youtube", info.source());
+		assertEquals(0L, info.position());
+		assertEquals(2, TrackDecoder.version(encoded));
+	}
+
+	// version 1 messages have no version byte and no uri.
+	@Test
+	void decodesUnversionedMessages() throws IOException {
+		final var encoded = encode(1, "Title", "Author", Long.MAX_VALUE, "stream", true, null, "http",
+				new byte[0], 0);
+		final var info = TrackDecoder.decode(encoded);
+		assertEquals(1, info.version());
+		assertTrue(info.stream());
+		assertEquals(Long.MAX_VALUE, info.length());
+		assertNull(info.uri());
+		assertEquals("http", info.source());
+		assertEquals(1, TrackDecoder.version(encoded));
+	}
+
+	@Test
+	void decodesMissingUri() throws IOException {
+		final var info = TrackDecoder.decode(encode(2, "Title", "Author", 1, "id", false, null, "local",
+				new byte[0], 0));
+		assertNull(info.uri());
+		assertEquals("local", info.source());
+	}
+
+	// whatever the source manager wrote is skipped, the position is always the message's last eight bytes.
+	@Test
+	void skipsSourceDetails() throws IOException {
+		final var details = new byte[300];
+		Arrays.fill(details, (byte) 0x7F);
+		final var info = TrackDecoder.decode(encode(2, "Title", "Author", 5000, "id", false, "uri", "soundcloud",
+				details, 1234));
+		assertEquals("soundcloud", info.source());
+		assertEquals(1234L, info.position());
+	}
+
+	// nul and surrogate pairs are where modified UTF-8 differs from the standard kind.
+	@Test
+	void decodesModifiedUtf8() throws IOException {
+		final var title = "caf\u00e9 \u6f22\u5b57 \ud83c\udfb5 nul\u0000";
+		final var info = TrackDecoder.decode(encode(2, title, "", 1, "id", false, null, "youtube", new byte[0], 0));
+		assertEquals(title, info.title());
+		assertEquals("", info.author());
+	}
+
+	@Test
+	void decodesLargeMessages() throws IOException {
+		final var title = "t".repeat(60000);
+		final var info = TrackDecoder.decode(encode(2, title, "Author", 1, "id", false, null, "youtube",
+				new byte[20000], 0));
+		assertEquals(title, info.title());
+		// and the per-thread buffers still work once a big message has been through them.
+		assertEquals("small", TrackDecoder.decode(encode(2, "small", "a", 1, "id", false, null, "youtube",
+				new byte[0], 0)).title());
+	}
+
+	@Test
+	void rejectsMalformedMessages() throws IOException {
+		final var valid = Base64.getDecoder().decode(encode(2, "Title", "Author", 1, "id", false, "uri", "youtube",
+				new byte[0], 0));
+		final var truncated = Base64.getEncoder().encodeToString(Arrays.copyOf(valid, valid.length - 10));
+		assertThrows(LocalTrackException.class, () -> TrackDecoder.decode(truncated));
+		// a message size which claims less than the fields need.
+		final var shrunk = valid.clone();
+		shrunk[3] = 12;
+		assertThrows(LocalTrackException.class, () -> TrackDecoder.decode(Base64.getEncoder().encodeToString(shrunk)));
+		assertThrows(LocalTrackException.class, () -> TrackDecoder.decode("not base64!"));
+		assertThrows(LocalTrackException.class, () -> TrackDecoder.decode(""));
+		assertThrows(LocalTrackException.class, () -> TrackDecoder.version("QAA"));
+	}
+
+	// lavaplayer's MessageOutput/DefaultAudioPlayerManager#encodeTrack layout.
+	// uri may be null.
+	private static String encode(final int version, final String title, final String author, final long length,
+	                             final String identifier, final boolean stream, final String uri,
+	                             final String source, final byte[] details, final long position) throws IOException {
+		final var body = new ByteArrayOutputStream();
+		final var out = new DataOutputStream(body);
+		if (version > 1) {
+			out.writeByte(version);
+		}
+		out.writeUTF(title);
+		out.writeUTF(author);
+		out.writeLong(length);
+		out.writeUTF(identifier);
+		out.writeBoolean(stream);
+		if (version >= 2) {
+			out.writeBoolean(uri != null);
+			if (uri != null) {
+				out.writeUTF(uri);
+			}
+		}
+		out.writeUTF(source);
+		out.write(details);
+		out.writeLong(position);
+		final var message = new ByteArrayOutputStream();
+		final var header = new DataOutputStream(message);
+		header.writeInt(body.size() | (version > 1 ? 1 << 30 : 0));
+		body.writeTo(message);
+		return Base64.getEncoder().encodeToString(message.toByteArray());
+	}
+}
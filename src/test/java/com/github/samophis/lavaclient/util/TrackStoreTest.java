@@ -0,0 +1,174 @@
+/*
+   Copyright 2019 Sam Pritchard
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package com.github.samophis.lavaclient.util;
+
+import com.github.samophis.lavaclient.entities.AudioLoadResult;
+import com.github.samophis.lavaclient.entities.LoadType;
+import com.github.samophis.lavaclient.entities.internal.AudioLoadResultImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackStoreTest {
+	private static final int CAPACITY = 64 * 1024;
+	private static final long TTL = TimeUnit.HOURS.toMillis(1);
+	// the 5 byte file header, then the first record's length and crc.
+	private static final int FIRST_BODY = 5 + 8;
+
+	@Test
+	void roundTripsResults() throws IOException {
+		final var store = open(tempFile(), CAPACITY);
+		final var playlist = new AudioLoadResultImpl(List.of("QAAA1", "QAAA2", "QAAA3"), LoadType.PLAYLIST_LOADED,
+				"Playlist \u00e9", 1, true);
+		store.put("https://example.com/playlist", playlist);
+		assertResult(playlist, store.get("https://example.com/playlist"));
+		assertNull(store.get("https://example.com/other"));
+		assertEquals(1, store.hitCount());
+		assertEquals(1, store.missCount());
+		final var track = new AudioLoadResultImpl(List.of("QAAA4"), LoadType.TRACK_LOADED, null, null, false);
+		store.put("https://example.com/track", track);
+		assertResult(track, store.get("https://example.com/track"));
+		assertEquals(2, store.size());
+	}
+
+	@Test
+	void survivesReopening() throws IOException {
+		final var path = tempFile();
+		final var store = open(path, CAPACITY);
+		final var result = search("QAAA1", "QAAA2");
+		store.put("ytsearch:Some  Song", result);
+		store.put("https://example.com/gone", search("QAAA3"));
+		store.invalidate("https://example.com/gone");
+		store.close();
+		final var reopened = open(path, CAPACITY);
+		assertEquals(1, reopened.size());
+		// searches are normalised, so whitespace and case don't matter.
+		assertResult(result, reopened.get("YTSEARCH:some song"));
+		assertNull(reopened.get("https://example.com/gone"));
+		assertEquals(store.usedBytes(), reopened.usedBytes());
+		assertEquals(store.liveBytes(), reopened.liveBytes());
+	}
+
+	@Test
+	void skipsNegativeResultsAndDisabledTtls() throws IOException {
+		final var store = TrackStore.open(tempFile(), CAPACITY, 0, TTL);
+		store.put("https://example.com/missing", new AudioLoadResultImpl(List.of(), LoadType.NO_MATCHES, null, null,
+				false));
+		store.put("https://example.com/failed", new AudioLoadResultImpl(List.of(), LoadType.LOAD_FAILED, null, null,
+				false));
+		store.put("ytsearch:not kept", search("QAAA1"));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void dropsExpiredResults() throws IOException, InterruptedException {
+		final var store = TrackStore.open(tempFile(), CAPACITY, 1, 1);
+		store.put("https://example.com/short", search("QAAA1"));
+		Thread.sleep(10);
+		assertNull(store.get("https://example.com/short"));
+		assertEquals(0, store.liveBytes());
+	}
+
+	// a record whose crc doesn't match is treated as torn and ends the scan, along with everything after it.
+	@Test
+	void stopsAtCorruptRecords() throws IOException {
+		final var path = tempFile();
+		final var store = open(path, CAPACITY);
+		store.put("https://example.com/first", search("QAAA1"));
+		store.put("https://example.com/second", search("QAAA2"));
+		store.close();
+		try (final var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] {0x55}), FIRST_BODY + 3);
+		}
+		final var reopened = open(path, CAPACITY);
+		assertEquals(0, reopened.size());
+		assertNull(reopened.get("https://example.com/second"));
+		// and the store carries on writing from where the good records ended.
+		reopened.put("https://example.com/third", search("QAAA3"));
+		assertEquals(1, open(path, CAPACITY).size());
+	}
+
+	@Test
+	void startsOverOnUnknownFiles() throws IOException {
+		final var path = tempFile();
+		Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+		final var store = open(path, CAPACITY);
+		assertEquals(0, store.size());
+		store.put("https://example.com/track", search("QAAA1"));
+		assertEquals(1, open(path, CAPACITY).size());
+	}
+
+	@Test
+	void compactsWhenFull() throws IOException {
+		final var path = tempFile();
+		final var store = open(path, 4096);
+		final var latest = search("QAAA" + "x".repeat(100));
+		for (var i = 0; i < 100; i++) {
+			store.put("https://example.com/track", search("QAAA" + i + "x".repeat(100)));
+		}
+		store.put("https://example.com/track", latest);
+		store.put("https://example.com/other", search("QAAA2"));
+		assertTrue(store.compactionCount() > 0);
+		assertEquals(2, store.size());
+		assertResult(latest, store.get("https://example.com/track"));
+		final var reopened = open(path, 4096);
+		assertResult(latest, reopened.get("https://example.com/track"));
+		// live bytes are tracked as records are superseded, the scan on open has to arrive at the same figure.
+		assertEquals(store.liveBytes(), reopened.liveBytes());
+	}
+
+	@Test
+	void ignoresOversizedResults() throws IOException {
+		final var store = open(tempFile(), 1024);
+		store.put("https://example.com/huge", search("QAAA" + "x".repeat(2048)));
+		assertEquals(0, store.size());
+		assertEquals(5, store.usedBytes());
+	}
+
+	private static TrackStore open(final Path path, final int capacity) throws IOException {
+		return TrackStore.open(path, capacity, TTL, TTL);
+	}
+
+	private static Path tempFile() throws IOException {
+		final var directory = Files.createTempDirectory("lavaclient-store");
+		directory.toFile().deleteOnExit();
+		final var path = directory.resolve("tracks.store");
+		path.toFile().deleteOnExit();
+		return path;
+	}
+
+	private static AudioLoadResultImpl search(final String... tracks) {
+		return new AudioLoadResultImpl(List.of(tracks), LoadType.SEARCH_RESULT, null, null, false);
+	}
+
+	private static void assertResult(final AudioLoadResult expected, final AudioLoadResult actual) {
+		assertNotNull(actual);
+		assertEquals(expected.encodedTracks(), actual.encodedTracks());
+		assertEquals(expected.type(), actual.type());
+		assertEquals(expected.playlistName(), actual.playlistName());
+		assertEquals(expected.selectedTrack(), actual.selectedTrack());
+		assertEquals(expected.playlist(), actual.playlist());
+	}
+}